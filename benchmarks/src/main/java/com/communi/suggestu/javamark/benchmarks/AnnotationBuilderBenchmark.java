@@ -0,0 +1,61 @@
+package com.communi.suggestu.javamark.benchmarks;
+
+import com.communi.suggestu.javamark.doclet.builders.AnnotationBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.lang.model.element.Element;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the annotations of every annotated element of the fixture.
+ * A new builder is created for every element, the same way the type pages use it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnnotationBuilderBenchmark
+{
+    private DocletFixture fixture;
+    private List<Element> annotatedElements;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        fixture = DocletFixture.start();
+        annotatedElements = fixture.getAnnotatedElements();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception
+    {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void build(final Blackhole blackhole)
+    {
+        for (final Element element : annotatedElements)
+        {
+            blackhole.consume(new AnnotationBuilder(fixture.getTypeUniverse(), fixture.getTypeLinkProvider())
+                .withLineBreak()
+                .from(element.getAnnotationMirrors())
+                .build());
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.communi.suggestu.javamark.benchmarks;
+
+import com.communi.suggestu.javamark.doclet.builders.PackageLinkBuilder;
+import com.communi.suggestu.javamark.doclet.builders.TypeDisplayNameBuilder;
+import com.communi.suggestu.javamark.doclet.builders.TypeFileBuilder;
+import com.communi.suggestu.javamark.doclet.builders.TypeLinkBuilder;
+import com.communi.suggestu.javamark.doclet.utils.PackageLinkProvider;
+import com.communi.suggestu.javamark.doclet.utils.TypeLinkProvider;
+import com.communi.suggestu.javamark.doclet.utils.TypeUniverse;
+import jdk.javadoc.doclet.DocletEnvironment;
+import jdk.javadoc.internal.doclets.formats.html.HtmlConfiguration;
+import jdk.javadoc.internal.doclets.toolkit.util.ClassTree;
+import org.apache.commons.io.file.PathUtils;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * A fully initialized doclet run over a fixture source tree, to benchmark the builders against a real javac model.
+ * <p>
+ * javadoc runs on a background thread until the fixture is closed, because the elements and the configuration are
+ * only usable while the doclet runs. The fixture sources are either a generated {@link SyntheticCodebase}, or read
+ * from the {@code javamark.fixture} system property, which the {@code jmh} task points at the sources of the example
+ * project.
+ */
+public final class DocletFixture implements AutoCloseable
+{
+    private static final String FIXTURE_PROPERTY = "javamark.fixture";
+    private static final String PACKAGES_PROPERTY = "javamark.fixture.packages";
+
+    private final CompletableFuture<Void> ready  = new CompletableFuture<>();
+    private final CountDownLatch          closed = new CountDownLatch(1);
+    private final Path                    workRoot;
+    private final Path                    outputRoot;
+    private       Thread                  javadoc;
+
+    private HtmlConfiguration      configuration;
+    private DocletEnvironment      environment;
+    private ClassTree              classTree;
+    private TypeUniverse           typeUniverse;
+    private TypeLinkProvider       typeLinkProvider;
+    private TypeLinkBuilder        typeLinkBuilder;
+    private TypeDisplayNameBuilder displayNameBuilder;
+    private PackageLinkBuilder     packageLinkBuilder;
+    private List<TypeElement>      types;
+
+    private DocletFixture(final Path workRoot)
+    {
+        this.workRoot = workRoot;
+        this.outputRoot = workRoot.resolve("docs");
+    }
+
+    /**
+     * Runs javadoc over the fixture sources, and waits until the doclet has initialized its configuration.
+     *
+     * @return the running fixture
+     * @throws IOException when the output directory could not be created
+     * @throws ExecutionException when javadoc failed before the fixture was initialized
+     * @throws InterruptedException when interrupted while waiting for javadoc
+     */
+    public static DocletFixture start() throws IOException, ExecutionException, InterruptedException
+    {
+        var sources = System.getProperty(FIXTURE_PROPERTY);
+        if (sources == null)
+        {
+            throw new IllegalStateException("The fixture sources are not configured, set the " + FIXTURE_PROPERTY + " system property.");
+        }
+
+        return start(Path.of(sources), System.getProperty(PACKAGES_PROPERTY, "com.communi.suggestu.javamark"), Files.createTempDirectory("javamark-benchmark"));
+    }
+
+    /**
+     * Generates the synthetic codebase, runs javadoc over it, and waits until the doclet has initialized its configuration.
+     *
+     * @param codebase the codebase to generate
+     * @return the running fixture
+     * @throws IOException when the codebase could not be generated
+     * @throws ExecutionException when javadoc failed before the fixture was initialized
+     * @throws InterruptedException when interrupted while waiting for javadoc
+     */
+    public static DocletFixture start(final SyntheticCodebase codebase) throws IOException, ExecutionException, InterruptedException
+    {
+        var workRoot = Files.createTempDirectory("javamark-benchmark");
+        codebase.generate(workRoot.resolve("src"));
+        return start(workRoot.resolve("src"), SyntheticCodebase.ROOT_PACKAGE, workRoot);
+    }
+
+    private static DocletFixture start(final Path sources, final String packages, final Path workRoot)
+        throws ExecutionException, InterruptedException
+    {
+        var fixture = new DocletFixture(workRoot);
+        FixtureDoclet.pending = fixture;
+        fixture.javadoc = new Thread(() -> {
+            var result = ToolProvider.getSystemDocumentationTool().run(null, null, null,
+                "-doclet", FixtureDoclet.class.getName(),
+                "--source-path", sources.toString(),
+                "-d", fixture.outputRoot.toString(),
+                "--markdown-only",
+                "-quiet",
+                "-Xdoclint:none",
+                "-subpackages", packages);
+            fixture.ready.completeExceptionally(new IllegalStateException("javadoc finished with exit code " + result + " before the fixture was initialized."));
+        }, "javamark-benchmark-javadoc");
+        fixture.javadoc.setDaemon(true);
+        fixture.javadoc.start();
+
+        fixture.ready.get();
+        return fixture;
+    }
+
+    void attach(final HtmlConfiguration configuration, final DocletEnvironment environment)
+    {
+        var knownTypes = environment.getIncludedElements()
+            .stream()
+            .filter(TypeElement.class::isInstance)
+            .map(TypeElement.class::cast)
+            .collect(Collectors.toSet());
+        var knownPackages = environment.getIncludedElements()
+            .stream()
+            .filter(PackageElement.class::isInstance)
+            .map(PackageElement.class::cast)
+            .collect(Collectors.toSet());
+        var includedTypes = knownTypes.stream()
+            .map(TypeElement::asType)
+            .collect(Collectors.toSet());
+
+        this.configuration = configuration;
+        this.environment = environment;
+        this.classTree = new ClassTree(configuration);
+        this.typeUniverse = new TypeUniverse(environment, environment.getElementUtils(), environment.getTypeUtils(), knownTypes, knownPackages);
+        this.typeLinkProvider = new TypeLinkProvider(typeUniverse, includedTypes);
+        this.typeLinkBuilder = new TypeLinkBuilder(typeUniverse, typeLinkProvider);
+        this.displayNameBuilder = new TypeDisplayNameBuilder(typeUniverse, typeLinkProvider);
+        this.packageLinkBuilder = new PackageLinkBuilder(new PackageLinkProvider(knownPackages));
+        this.types = knownTypes.stream()
+            .sorted(Comparator.comparing(type -> type.getQualifiedName().toString()))
+            .toList();
+        ready.complete(null);
+    }
+
+    void fail(final Throwable failure)
+    {
+        ready.completeExceptionally(failure);
+    }
+
+    void awaitClose()
+    {
+        try
+        {
+            closed.await();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public HtmlConfiguration getConfiguration()
+    {
+        return configuration;
+    }
+
+    public DocletEnvironment getEnvironment()
+    {
+        return environment;
+    }
+
+    public TypeUniverse getTypeUniverse()
+    {
+        return typeUniverse;
+    }
+
+    public TypeLinkProvider getTypeLinkProvider()
+    {
+        return typeLinkProvider;
+    }
+
+    public TypeDisplayNameBuilder getDisplayNameBuilder()
+    {
+        return displayNameBuilder;
+    }
+
+    public Path getOutputRoot()
+    {
+        return outputRoot;
+    }
+
+    /**
+     * {@return the included types, sorted by their qualified name}
+     */
+    public List<TypeElement> getTypes()
+    {
+        return types;
+    }
+
+    /**
+     * {@return every type which is referenced by the signatures of the included types}
+     * This contains the types themselves, their super types, and the types of their fields, methods and parameters.
+     */
+    public List<TypeMirror> getReferencedTypes()
+    {
+        var result = new ArrayList<TypeMirror>();
+        for (final TypeElement type : types)
+        {
+            result.add(type.asType());
+            result.add(type.getSuperclass());
+            result.addAll(type.getInterfaces());
+            for (final Element member : type.getEnclosedElements())
+            {
+                if (member instanceof VariableElement field)
+                {
+                    result.add(field.asType());
+                }
+                else if (member instanceof ExecutableElement executable)
+                {
+                    result.add(executable.getReturnType());
+                    executable.getParameters().forEach(parameter -> result.add(parameter.asType()));
+                    result.addAll(executable.getThrownTypes());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@return every annotated element of the included types}
+     * This contains the types themselves, their members and the parameters of their methods.
+     */
+    public List<Element> getAnnotatedElements()
+    {
+        var result = new ArrayList<Element>();
+        for (final TypeElement type : types)
+        {
+            addIfAnnotated(result, type);
+            for (final Element member : type.getEnclosedElements())
+            {
+                if (member.getKind() == ElementKind.CLASS || member.getKind() == ElementKind.INTERFACE)
+                {
+                    continue;
+                }
+
+                addIfAnnotated(result, member);
+                if (member instanceof ExecutableElement executable)
+                {
+                    executable.getParameters().forEach(parameter -> addIfAnnotated(result, parameter));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates the builder of the page of a type, the same way the JavaMark doclet does.
+     *
+     * @param type the type to render
+     * @return the builder, which is not yet populated
+     */
+    public TypeFileBuilder newTypeFileBuilder(final TypeElement type)
+    {
+        return new TypeFileBuilder(
+            configuration,
+            typeUniverse,
+            classTree,
+            environment.getTypeUtils(),
+            outputRoot.resolve(typeFilePath(type) + ".md"),
+            packageLinkBuilder,
+            typeLinkBuilder,
+            displayNameBuilder);
+    }
+
+    @Override
+    public void close() throws IOException, InterruptedException
+    {
+        closed.countDown();
+        if (javadoc != null)
+        {
+            javadoc.join();
+        }
+        if (FixtureDoclet.pending == this)
+        {
+            FixtureDoclet.pending = null;
+        }
+        PathUtils.deleteDirectory(workRoot);
+    }
+
+    private static void addIfAnnotated(final List<Element> result, final Element element)
+    {
+        if (!element.getAnnotationMirrors().isEmpty())
+        {
+            result.add(element);
+        }
+    }
+
+    private static String typeFilePath(final TypeElement typeElement)
+    {
+        if (typeElement.getEnclosingElement() instanceof TypeElement outer)
+        {
+            return typeFilePath(outer) + "." + typeElement.getSimpleName();
+        }
+
+        if (typeElement.getEnclosingElement() instanceof PackageElement packageElement)
+        {
+            return packageElement.getQualifiedName().toString().replace(".", File.separator).toLowerCase(Locale.ROOT)
+                + File.separator + typeElement.getSimpleName();
+        }
+
+        return typeElement.getSimpleName().toString();
+    }
+}
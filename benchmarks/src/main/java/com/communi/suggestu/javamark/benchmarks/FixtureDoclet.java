@@ -0,0 +1,72 @@
+package com.communi.suggestu.javamark.benchmarks;
+
+import com.communi.suggestu.javamark.doclet.MarkdownHtmlDoclet;
+import com.communi.suggestu.javamark.doclet.utils.JavaMarkOptions;
+import jdk.javadoc.doclet.Doclet;
+import jdk.javadoc.doclet.DocletEnvironment;
+import jdk.javadoc.doclet.Reporter;
+import jdk.javadoc.internal.doclets.formats.html.HtmlDoclet;
+
+import javax.lang.model.SourceVersion;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Runs the standard doclet the way the JavaMark doclet does, and then hands the initialized configuration to the
+ * {@link DocletFixture} which started javadoc, instead of rendering any page.
+ * <p>
+ * The doclet does not return until the fixture is closed, since the javac model is only valid while javadoc runs.
+ */
+public class FixtureDoclet implements Doclet
+{
+    static volatile DocletFixture pending;
+
+    private final JavaMarkOptions options     = new JavaMarkOptions();
+    private final HtmlDoclet      innerDoclet = new MarkdownHtmlDoclet(this, options);
+
+    @Override
+    public void init(final Locale locale, final Reporter reporter)
+    {
+        innerDoclet.init(locale, reporter);
+    }
+
+    @Override
+    public String getName()
+    {
+        return "javamark-benchmark-fixture";
+    }
+
+    @Override
+    public Set<? extends Option> getSupportedOptions()
+    {
+        var supportedOptions = new HashSet<Option>(innerDoclet.getConfiguration().getOptions().getSupportedOptions());
+        supportedOptions.addAll(options.getSupportedOptions());
+        return supportedOptions;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.RELEASE_17;
+    }
+
+    @Override
+    public boolean run(final DocletEnvironment environment)
+    {
+        var fixture = pending;
+        try
+        {
+            innerDoclet.run(environment);
+            fixture.attach(innerDoclet.getConfiguration(), environment);
+        }
+        catch (RuntimeException | Error e)
+        {
+            fixture.fail(e);
+            return false;
+        }
+
+        fixture.awaitClose();
+        return true;
+    }
+}
@@ -0,0 +1,68 @@
+package com.communi.suggestu.javamark.benchmarks;
+
+import com.communi.suggestu.javamark.doclet.utils.MarkdownCommentSanitizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sanitizes rendered doc comments of different sizes, which mix div blocks, blank lines and fenced code blocks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MarkdownCommentSanitizerBenchmark
+{
+    private static final String BLOCK = """
+        <div class="block">Returns the value of the field.
+
+        The value is computed on first access.</div>
+
+        ```java
+        var value = instance.getValue();
+
+        System.out.println(value);
+        ```
+        <dl class="notes">
+        <dt>Returns:</dt>
+
+        <dd>the value</dd>
+        </dl>
+
+        """;
+
+    @Param({"1024", "65536", "1048576"})
+    public int length;
+
+    private String input;
+
+    @Setup
+    public void setUp()
+    {
+        var builder = new StringBuilder(length + BLOCK.length());
+        while (builder.length() < length)
+        {
+            builder.append(BLOCK);
+        }
+        input = builder.toString();
+    }
+
+    @Benchmark
+    public String stripBlankLinesInsideDivBlocks()
+    {
+        return MarkdownCommentSanitizer.stripBlankLinesInsideDivBlocks(input);
+    }
+}
@@ -0,0 +1,361 @@
+package com.communi.suggestu.javamark.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a synthetic Java codebase, to test and benchmark the doclet at a scale the example project never reaches.
+ * <p>
+ * Every package holds a mix of generic classes, interfaces, annotations, enums and records. The classes of a package
+ * form inheritance chains of the configured depth, implement an interface and carry an annotation of the first
+ * package, and declare overloads of the same method. The enums declare four constants per member.
+ * <p>
+ * The generated sources only depend on the parameters, so the same parameters always generate the same codebase.
+ */
+public final class SyntheticCodebase
+{
+    public static final String ROOT_PACKAGE = "com.communi.suggestu.javamark.synthetic";
+
+    private static final int      KINDS           = 8;
+    private static final int      CLASSES_PER_KIND = 4;
+    private static final int      MARKER          = 4;
+    private static final int      SERVICE         = 5;
+    private static final int      ENUM            = 6;
+    private static final int      RECORD          = 7;
+    private static final int      PACKAGES_PER_GROUP = 100;
+    private static final String[] PARAMETER_TYPES = {
+        "int", "long", "String", "double", "boolean", "List<T>", "Map<String, T>", "Optional<? extends T>", "char[]", "Object"
+    };
+    private static final String[] WORDS           = {
+        "the", "value", "returns", "computes", "element", "given", "when", "cached", "index", "resolves", "type", "of",
+        "configuration", "a", "for", "every", "member", "documented", "in", "page", "and", "with", "which", "is"
+    };
+
+    private final int  packageCount;
+    private final int  typesPerPackage;
+    private final int  membersPerType;
+    private final int  hierarchyDepth;
+    private final int  javadocParagraphs;
+    private final long seed;
+
+    private SyntheticCodebase(
+        final int packageCount, final int typesPerPackage, final int membersPerType, final int hierarchyDepth, final int javadocParagraphs,
+        final long seed)
+    {
+        if (packageCount < 1 || typesPerPackage < 1 || membersPerType < 0 || hierarchyDepth < 1 || javadocParagraphs < 0)
+        {
+            throw new IllegalArgumentException("Invalid synthetic codebase parameters.");
+        }
+
+        this.packageCount = packageCount;
+        this.typesPerPackage = typesPerPackage;
+        this.membersPerType = membersPerType;
+        this.hierarchyDepth = hierarchyDepth;
+        this.javadocParagraphs = javadocParagraphs;
+        this.seed = seed;
+    }
+
+    /**
+     * {@return a small codebase of 10 packages with 16 types each}
+     */
+    public static SyntheticCodebase create()
+    {
+        return new SyntheticCodebase(10, 16, 20, 4, 2, 0);
+    }
+
+    public SyntheticCodebase withPackageCount(final int packageCount)
+    {
+        return new SyntheticCodebase(packageCount, typesPerPackage, membersPerType, hierarchyDepth, javadocParagraphs, seed);
+    }
+
+    public SyntheticCodebase withTypesPerPackage(final int typesPerPackage)
+    {
+        return new SyntheticCodebase(packageCount, typesPerPackage, membersPerType, hierarchyDepth, javadocParagraphs, seed);
+    }
+
+    public SyntheticCodebase withMembersPerType(final int membersPerType)
+    {
+        return new SyntheticCodebase(packageCount, typesPerPackage, membersPerType, hierarchyDepth, javadocParagraphs, seed);
+    }
+
+    public SyntheticCodebase withHierarchyDepth(final int hierarchyDepth)
+    {
+        return new SyntheticCodebase(packageCount, typesPerPackage, membersPerType, hierarchyDepth, javadocParagraphs, seed);
+    }
+
+    /**
+     * Sets the amount of paragraphs of the doc comment of every type and member.
+     */
+    public SyntheticCodebase withJavadocParagraphs(final int javadocParagraphs)
+    {
+        return new SyntheticCodebase(packageCount, typesPerPackage, membersPerType, hierarchyDepth, javadocParagraphs, seed);
+    }
+
+    /**
+     * Sets the seed of the generated doc comments. The declarations do not depend on the seed.
+     */
+    public SyntheticCodebase withSeed(final long seed)
+    {
+        return new SyntheticCodebase(packageCount, typesPerPackage, membersPerType, hierarchyDepth, javadocParagraphs, seed);
+    }
+
+    public int getPackageCount()
+    {
+        return packageCount;
+    }
+
+    /**
+     * {@return the amount of top level types of the codebase}
+     */
+    public int getTypeCount()
+    {
+        return packageCount * typesPerPackage;
+    }
+
+    /**
+     * Writes the sources of the codebase.
+     *
+     * @param sourceRoot the source root to write the packages to
+     * @throws IOException when a source file could not be written
+     */
+    public void generate(final Path sourceRoot) throws IOException
+    {
+        for (int packageIndex = 0; packageIndex < packageCount; packageIndex++)
+        {
+            var packageName = packageName(packageIndex);
+            var directory = sourceRoot.resolve(packageName.replace('.', '/'));
+            Files.createDirectories(directory);
+
+            var random = random(packageIndex, -1);
+            Files.writeString(directory.resolve("package-info.java"),
+                javadoc("", random, List.of(), false, false) + "package " + packageName + ";\n");
+
+            for (int typeIndex = 0; typeIndex < typesPerPackage; typeIndex++)
+            {
+                Files.writeString(directory.resolve(typeName(typeIndex) + ".java"), typeSource(packageIndex, typeIndex));
+            }
+        }
+    }
+
+    private String typeSource(final int packageIndex, final int typeIndex)
+    {
+        var random = random(packageIndex, typeIndex);
+        var source = new StringBuilder("package ").append(packageName(packageIndex)).append(";\n\n")
+            .append("import java.lang.annotation.Documented;\n")
+            .append("import java.lang.annotation.Retention;\n")
+            .append("import java.lang.annotation.RetentionPolicy;\n")
+            .append("import java.util.List;\n")
+            .append("import java.util.Map;\n")
+            .append("import java.util.Optional;\n")
+            .append("import java.util.function.Function;\n\n")
+            .append(javadoc("", random, List.of(), false));
+
+        var name = typeName(typeIndex);
+        switch (typeIndex % KINDS)
+        {
+            case MARKER -> source.append("@Documented\n@Retention(RetentionPolicy.RUNTIME)\npublic @interface ").append(name).append("\n{\n")
+                .append("    String value() default \"\";\n\n")
+                .append("    int[] priorities() default {};\n");
+            case SERVICE -> {
+                source.append("public interface ").append(name).append("<T>\n{\n");
+                for (int member = 0; member < membersPerType; member++)
+                {
+                    source.append(javadoc("    ", random, List.of("mapper"), true))
+                        .append("    default <R> Optional<R> service").append(member).append("(Function<? super T, ? extends R> mapper)\n")
+                        .append("    {\n        return Optional.empty();\n    }\n\n");
+                }
+            }
+            case ENUM -> {
+                source.append("public enum ").append(name).append("\n{\n");
+                var constants = Math.max(1, membersPerType * 4);
+                for (int constant = 0; constant < constants; constant++)
+                {
+                    source.append(javadoc("    ", random, List.of(), false))
+                        .append("    CONSTANT_").append(constant).append(constant + 1 < constants ? ",\n" : ";\n\n");
+                }
+                appendOverloads(source, random, "String", 0, true);
+            }
+            case RECORD -> {
+                source.append("public record ").append(name).append("(int id, String name, List<String> tags)\n{\n");
+                appendOverloads(source, random, "String", 0, false);
+            }
+            default -> {
+                appendClassDeclaration(source, packageIndex, typeIndex);
+                source.append("    public ").append(name).append("()\n    {\n    }\n\n");
+                appendOverloads(source, random, "T", classOrdinal(typeIndex), true);
+            }
+        }
+
+        return source.append("}\n").toString();
+    }
+
+    private void appendClassDeclaration(final StringBuilder source, final int packageIndex, final int typeIndex)
+    {
+        if (typesPerPackage > MARKER)
+        {
+            source.append('@').append(packageName(0)).append('.').append(typeName(MARKER))
+                .append("(value = \"").append(typeName(typeIndex)).append("\", priorities = {").append(packageIndex).append(", ").append(typeIndex).append("})\n");
+        }
+
+        source.append("public class ").append(typeName(typeIndex)).append("<T extends Comparable<T>>");
+
+        var ordinal = classOrdinal(typeIndex);
+        if (ordinal % hierarchyDepth != 0)
+        {
+            var parent = ordinal - 1;
+            source.append(" extends ").append(typeName(parent / CLASSES_PER_KIND * KINDS + parent % CLASSES_PER_KIND)).append("<T>");
+        }
+
+        if (typesPerPackage > SERVICE)
+        {
+            source.append(" implements ").append(packageName(0)).append('.').append(typeName(SERVICE)).append("<T>");
+        }
+        source.append("\n{\n");
+    }
+
+    /**
+     * Appends the members of a type, mostly overloads of the same method. Every overload has a different list of
+     * parameter types, which is the bijective numeral of its index in {@link #PARAMETER_TYPES}.
+     * Records can not declare instance fields, so their fields are static.
+     */
+    private void appendOverloads(
+        final StringBuilder source, final SplittableRandom random, final String typeVariable, final int ordinal, final boolean instanceFields)
+    {
+        for (int member = 0; member < membersPerType; member++)
+        {
+            if (member % 5 == 0)
+            {
+                source.append(javadoc("    ", random, List.of(), false));
+                if (member % 10 == 0)
+                {
+                    source.append("    public static final int CONSTANT_VALUE_").append(member).append(" = ").append(ordinal * 1000 + member).append(";\n\n");
+                }
+                else
+                {
+                    source.append(instanceFields ? "    protected List<" : "    protected static List<").append(typeVariable).append("> field").append(member).append(";\n\n");
+                }
+                continue;
+            }
+
+            if (member % 5 == 1)
+            {
+                source.append(javadoc("    ", random, List.of("mapper"), true))
+                    .append("    public <R> Map<String, List<R>> transform").append(member).append("(Function<? super ").append(typeVariable).append(", ? extends R> mapper)\n")
+                    .append("    {\n        return null;\n    }\n\n");
+                continue;
+            }
+
+            var parameterTypes = new ArrayList<String>();
+            for (int remainder = member + 1; remainder > 0; remainder = (remainder - 1) / PARAMETER_TYPES.length)
+            {
+                parameterTypes.add(PARAMETER_TYPES[(remainder - 1) % PARAMETER_TYPES.length].replace("T", typeVariable));
+            }
+
+            var parameterNames = new ArrayList<String>();
+            var parameters = new StringBuilder();
+            for (int parameter = 0; parameter < parameterTypes.size(); parameter++)
+            {
+                parameterNames.add("p" + parameter);
+                parameters.append(parameter == 0 ? "" : ", ").append(parameterTypes.get(parameter)).append(" p").append(parameter);
+            }
+
+            source.append(javadoc("    ", random, parameterNames, true))
+                .append("    public String overloaded(").append(parameters).append(")\n")
+                .append("    {\n        return null;\n    }\n\n");
+        }
+    }
+
+    private String javadoc(final String indent, final SplittableRandom random, final List<String> parameters, final boolean returns)
+    {
+        return javadoc(indent, random, parameters, returns, true);
+    }
+
+    /**
+     * Generates a doc comment of random words. Links only point to types of the same package, and are left out of
+     * package comments.
+     */
+    private String javadoc(
+        final String indent, final SplittableRandom random, final List<String> parameters, final boolean returns, final boolean links)
+    {
+        var comment = new StringBuilder(indent).append("/**\n");
+        for (int paragraph = 0; paragraph < javadocParagraphs; paragraph++)
+        {
+            if (paragraph > 0)
+            {
+                comment.append(indent).append(" * <p>\n");
+            }
+
+            comment.append(indent).append(" *");
+            var words = 12 + random.nextInt(24);
+            for (int word = 0; word < words; word++)
+            {
+                comment.append(' ');
+                var choice = random.nextInt(40);
+                if (choice == 0 && links)
+                {
+                    comment.append("{@link ").append(typeName(random.nextInt(typesPerPackage))).append('}');
+                }
+                else if (choice == 1)
+                {
+                    comment.append("{@code ").append(WORDS[random.nextInt(WORDS.length)]).append('}');
+                }
+                else
+                {
+                    comment.append(WORDS[random.nextInt(WORDS.length)]);
+                }
+
+                if (word % 10 == 9)
+                {
+                    comment.append('\n').append(indent).append(" *");
+                }
+            }
+            comment.append(".\n");
+        }
+
+        if (!parameters.isEmpty() || returns)
+        {
+            comment.append(indent).append(" *\n");
+        }
+        for (final String parameter : parameters)
+        {
+            comment.append(indent).append(" * @param ").append(parameter).append(" the ").append(WORDS[random.nextInt(WORDS.length)]).append('\n');
+        }
+        if (returns)
+        {
+            comment.append(indent).append(" * @return the ").append(WORDS[random.nextInt(WORDS.length)]).append('\n');
+        }
+        return comment.append(indent).append(" */\n").toString();
+    }
+
+    private SplittableRandom random(final int packageIndex, final int typeIndex)
+    {
+        return new SplittableRandom(seed * 1_000_003L + packageIndex * 65_537L + typeIndex);
+    }
+
+    private static int classOrdinal(final int typeIndex)
+    {
+        return typeIndex / KINDS * CLASSES_PER_KIND + typeIndex % KINDS;
+    }
+
+    private static String packageName(final int packageIndex)
+    {
+        return String.format(Locale.ROOT, "%s.group%d.package%d", ROOT_PACKAGE, packageIndex / PACKAGES_PER_GROUP, packageIndex);
+    }
+
+    private static String typeName(final int typeIndex)
+    {
+        return switch (typeIndex % KINDS)
+        {
+            case MARKER -> "Marker" + typeIndex;
+            case SERVICE -> "Service" + typeIndex;
+            case ENUM -> "Kind" + typeIndex;
+            case RECORD -> "Value" + typeIndex;
+            default -> "Type" + typeIndex;
+        };
+    }
+}
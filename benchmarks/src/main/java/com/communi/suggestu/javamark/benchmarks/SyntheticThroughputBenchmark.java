@@ -0,0 +1,152 @@
+package com.communi.suggestu.javamark.benchmarks;
+
+import com.communi.suggestu.javamark.doclet.JavaMarkDoclet;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the JavaMark doclet end to end over growing synthetic codebases, into an empty output directory every time.
+ * <p>
+ * Besides the runs per second, the {@code pages} counter reports the pages per second, and the {@code peakHeapMiB}
+ * counter the highest heap usage of a run. Every run writes a page per type and per package. JMH sums event counters
+ * over the measured iterations, so the runs are measured in a single, long iteration.
+ * Choose the sizes with {@code -Pthroughput.packages=4,16,64}, and the other dimensions with {@code -Pjmh.params}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 20)
+@Measurement(iterations = 1, time = 60)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2G")
+public class SyntheticThroughputBenchmark
+{
+    @Param({"4", "16", "64"})
+    public int packageCount;
+
+    @Param({"16"})
+    public int typesPerPackage;
+
+    @Param({"20"})
+    public int membersPerType;
+
+    @Param({"4"})
+    public int hierarchyDepth;
+
+    @Param({"2"})
+    public int javadocParagraphs;
+
+    private Path root;
+    private Path sources;
+    private Path output;
+    private int  pagesPerRun;
+
+    private final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+        .filter(pool -> pool.getType() == MemoryType.HEAP)
+        .toList();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        var codebase = SyntheticCodebase.create()
+            .withPackageCount(packageCount)
+            .withTypesPerPackage(typesPerPackage)
+            .withMembersPerType(membersPerType)
+            .withHierarchyDepth(hierarchyDepth)
+            .withJavadocParagraphs(javadocParagraphs);
+        root = Files.createTempDirectory("javamark-throughput");
+        sources = root.resolve("src");
+        output = root.resolve("docs");
+        codebase.generate(sources);
+        pagesPerRun = codebase.getTypeCount() + codebase.getPackageCount();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareRun() throws IOException
+    {
+        FileUtils.deleteDirectory(output.toFile());
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        FileUtils.deleteDirectory(root.toFile());
+    }
+
+    @Benchmark
+    public void render(final Pages pages, final PeakHeap peakHeap)
+    {
+        int result = ToolProvider.getSystemDocumentationTool().run(null, null, null,
+            "-doclet", JavaMarkDoclet.class.getName(),
+            "--source-path", sources.toString(),
+            "-d", output.toString(),
+            "--markdown-only",
+            "-quiet",
+            "-Xdoclint:none",
+            "-subpackages", SyntheticCodebase.ROOT_PACKAGE);
+        if (result != 0)
+        {
+            throw new IllegalStateException("The doclet failed with exit code " + result);
+        }
+
+        pages.pages += pagesPerRun;
+        var heap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() / (1024.0 * 1024.0);
+        peakHeap.peakHeapMiB = Math.max(peakHeap.peakHeapMiB, heap);
+    }
+
+    /**
+     * The pages written by the runs of an iteration, reported per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Pages
+    {
+        public long pages;
+
+        @Setup(Level.Iteration)
+        public void reset()
+        {
+            pages = 0;
+        }
+    }
+
+    /**
+     * The highest heap usage of the runs of an iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PeakHeap
+    {
+        public double peakHeapMiB;
+
+        @Setup(Level.Iteration)
+        public void reset()
+        {
+            peakHeapMiB = 0;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.communi.suggestu.javamark.benchmarks;
+
+import com.communi.suggestu.javamark.doclet.builders.TypeDisplayNameBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.lang.model.type.TypeMirror;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the display name of every type referenced by the signatures of the fixture, in each display mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TypeDisplayNameBuilderBenchmark
+{
+    @Param({"JAVADOC", "FULLY_QUALIDIED_JAVADOC_NAME", "FULLY_QUALIFIED_NAME", "SIMPLE_NAME"})
+    public TypeDisplayNameBuilder.DisplayMode displayMode;
+
+    private DocletFixture          fixture;
+    private TypeDisplayNameBuilder builder;
+    private List<TypeMirror>       referencedTypes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        fixture = DocletFixture.start();
+        builder = fixture.getDisplayNameBuilder().withDisplayMode(displayMode);
+        referencedTypes = fixture.getReferencedTypes();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception
+    {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void build(final Blackhole blackhole)
+    {
+        for (final TypeMirror type : referencedTypes)
+        {
+            blackhole.consume(builder.build(type));
+        }
+    }
+}
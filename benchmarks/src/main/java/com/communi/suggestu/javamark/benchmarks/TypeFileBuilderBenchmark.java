@@ -0,0 +1,74 @@
+package com.communi.suggestu.javamark.benchmarks;
+
+import com.communi.suggestu.javamark.doclet.rendering.PageOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.lang.model.element.TypeElement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the type pages of the example project, or of a small synthetic codebase, on a single thread.
+ * <p>
+ * {@link #populate} only measures building the content of the pages, {@link #render} also writes them. The pages
+ * are written to the same directory on every invocation, so after the first one only the comparison with the
+ * existing files is measured, as in a regeneration of unchanged documentation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TypeFileBuilderBenchmark
+{
+    @Param({"example", "synthetic"})
+    public String codebase;
+
+    private DocletFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        fixture = codebase.equals("synthetic") ? DocletFixture.start(SyntheticCodebase.create()) : DocletFixture.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception
+    {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void populate(final Blackhole blackhole) throws Exception
+    {
+        for (final TypeElement type : fixture.getTypes())
+        {
+            blackhole.consume(fixture.newTypeFileBuilder(type).from(type));
+        }
+    }
+
+    @Benchmark
+    public void render() throws Exception
+    {
+        try (var output = PageOutput.direct(fixture.getOutputRoot()))
+        {
+            for (final TypeElement type : fixture.getTypes())
+            {
+                fixture.newTypeFileBuilder(type).from(type).build(output);
+            }
+        }
+    }
+}
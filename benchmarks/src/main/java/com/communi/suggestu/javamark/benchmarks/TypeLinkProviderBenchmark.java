@@ -0,0 +1,73 @@
+package com.communi.suggestu.javamark.benchmarks;
+
+import com.communi.suggestu.javamark.doclet.utils.TypeLinkProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.lang.model.element.TypeElement;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves the relative link between every pair of types of the fixture, once with the shared provider whose links
+ * are memoized by the warmup, and once with a fresh provider, which is what every run of the doclet starts with.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TypeLinkProviderBenchmark
+{
+    private DocletFixture     fixture;
+    private List<TypeElement> types;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        fixture = DocletFixture.start();
+        types = fixture.getTypes();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception
+    {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void getRelativeLinkMemoized(final Blackhole blackhole)
+    {
+        linkAll(fixture.getTypeLinkProvider(), blackhole);
+    }
+
+    @Benchmark
+    public void getRelativeLinkCold(final Blackhole blackhole)
+    {
+        linkAll(new TypeLinkProvider(fixture.getTypeUniverse(), Set.of()), blackhole);
+    }
+
+    private void linkAll(final TypeLinkProvider provider, final Blackhole blackhole)
+    {
+        for (final TypeElement source : types)
+        {
+            for (final TypeElement target : types)
+            {
+                blackhole.consume(provider.getRelativeLink(source, target.asType()));
+            }
+        }
+    }
+}
@@ -1,12 +1,27 @@
 package com.communi.suggestu.javamark.doclet;
 
 import com.communi.suggestu.javamark.doclet.builders.ConstantsFileBuilder;
+import com.communi.suggestu.javamark.doclet.builders.FileBuilder;
+import com.communi.suggestu.javamark.doclet.builders.ModelFileBuilder;
 import com.communi.suggestu.javamark.doclet.builders.PackageFileBuilder;
 import com.communi.suggestu.javamark.doclet.builders.PackageLinkBuilder;
+import com.communi.suggestu.javamark.doclet.builders.SearchIndexBuilder;
 import com.communi.suggestu.javamark.doclet.builders.TypeDisplayNameBuilder;
 import com.communi.suggestu.javamark.doclet.builders.TypeFileBuilder;
 import com.communi.suggestu.javamark.doclet.builders.TypeLinkBuilder;
+import com.communi.suggestu.javamark.doclet.model.DocumentationModel;
+import com.communi.suggestu.javamark.doclet.model.Fragment;
+import com.communi.suggestu.javamark.doclet.model.MarkdownPage;
+import com.communi.suggestu.javamark.doclet.model.PageModel;
+import com.communi.suggestu.javamark.doclet.rendering.PageFingerprinter;
+import com.communi.suggestu.javamark.doclet.rendering.PageManifest;
+import com.communi.suggestu.javamark.doclet.rendering.PageOutput;
+import com.communi.suggestu.javamark.doclet.rendering.PageRenderingEngine;
+import com.communi.suggestu.javamark.doclet.rendering.RenderingProfiler;
+import com.communi.suggestu.javamark.doclet.utils.ExternalLinks;
+import com.communi.suggestu.javamark.doclet.utils.JavaMarkOptions;
 import com.communi.suggestu.javamark.doclet.utils.PackageLinkProvider;
+import com.communi.suggestu.javamark.doclet.utils.SignatureUtils;
 import com.communi.suggestu.javamark.doclet.utils.TypeLinkProvider;
 import com.communi.suggestu.javamark.doclet.utils.TypeUniverse;
 import com.sun.source.util.DocTrees;
@@ -20,17 +35,24 @@ import jdk.javadoc.internal.doclets.toolkit.util.ClassTree;
 import jdk.javadoc.internal.doclets.toolkit.util.DocFile;
 import jdk.javadoc.internal.doclets.toolkit.util.DocPath;
 import jdk.javadoc.internal.doclets.toolkit.util.DocPaths;
-import org.apache.commons.io.FileUtils;
 
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 public class JavaMarkDoclet implements Doclet
@@ -40,11 +62,14 @@ public class JavaMarkDoclet implements Doclet
     {
     }
 
-    private final HtmlDoclet innerDoclet = new HtmlDoclet(this);
+    private final JavaMarkOptions options     = new JavaMarkOptions();
+    private final HtmlDoclet      innerDoclet = new MarkdownHtmlDoclet(this, options);
+    private       Reporter        reporter;
 
     @Override
     public void init(final Locale locale, final Reporter reporter)
     {
+        this.reporter = reporter;
         innerDoclet.init(locale, reporter);
     }
 
@@ -57,7 +82,9 @@ public class JavaMarkDoclet implements Doclet
     @Override
     public Set<? extends Option> getSupportedOptions()
     {
-        return getConfiguration().getOptions().getSupportedOptions();
+        var supportedOptions = new HashSet<Option>(getConfiguration().getOptions().getSupportedOptions());
+        supportedOptions.addAll(options.getSupportedOptions());
+        return options.recording(supportedOptions);
     }
 
     @Override
@@ -74,23 +101,49 @@ public class JavaMarkDoclet implements Doclet
     @Override
     public boolean run(final DocletEnvironment environment)
     {
-        innerDoclet.run(environment);
-        DocFile outputDir = DocFile.createFileForOutput(
-            getConfiguration(),
-            DocPath.create("/")
-        );
-
         try
         {
-            FileUtils.deleteDirectory(Path.of(outputDir.getPath()).toFile());
+            SignatureUtils.checkAvailable();
         }
-        catch (IOException e)
+        catch (IllegalStateException e)
         {
-            throw new RuntimeException(e);
+            reporter.print(Diagnostic.Kind.ERROR, e.getMessage());
+            return false;
         }
 
-        try
+        var shard = options.shard();
+        var merging = !options.mergedShards().isEmpty();
+        if (merging && shard.isPartial())
         {
+            reporter.print(Diagnostic.Kind.ERROR, "--merge-shards can not be combined with --shard or --shard-packages");
+            return false;
+        }
+
+        // The model only covers the pages which are rendered by this run.
+        var modelPages = options.modelFile() == null ? null : new ArrayList<PageModel>();
+        if (modelPages != null && (merging || shard.isPartial() || options.incremental()))
+        {
+            reporter.print(Diagnostic.Kind.ERROR, "--write-model can not be combined with --incremental, --shard, --shard-packages or --merge-shards");
+            return false;
+        }
+
+        var profiler = new RenderingProfiler(options.profileReport() != null);
+        try (var phase = profiler.phase("standard doclet"))
+        {
+            innerDoclet.run(environment);
+        }
+
+        DocFile outputDir = DocFile.createFileForOutput(
+            getConfiguration(),
+            DocPath.create("/")
+        );
+
+        var outputRoot = Path.of(outputDir.getPath());
+
+        try (var output = options.stagedOutput() ? PageOutput.staged(outputRoot) : PageOutput.direct(outputRoot);
+             var renderingEngine = new PageRenderingEngine(options.renderThreads(), output))
+        {
+            var universePhase = profiler.phase("type universe");
             var classTree = new ClassTree(getConfiguration());
             var knownTypes = environment.getIncludedElements()
                 .stream()
@@ -108,25 +161,141 @@ public class JavaMarkDoclet implements Doclet
                 .collect(Collectors.toSet());
 
             var typeUniverse = new TypeUniverse(environment, environment.getElementUtils(), environment.getTypeUtils(), knownTypes, knownPackages);
-            var typeLinkProvider = new TypeLinkProvider(typeUniverse, includedTypes);
-            var typeLinkBuilder = new TypeLinkBuilder(typeUniverse, typeLinkProvider);
+            var externalLinks = ExternalLinks.read(options.linkManifests());
+            var typeLinkProvider = new TypeLinkProvider(typeUniverse, includedTypes, externalLinks);
             var displayNameBuilder = new TypeDisplayNameBuilder(typeUniverse, typeLinkProvider);
+            var typeLinkBuilder = new TypeLinkBuilder(typeUniverse, typeLinkProvider, displayNameBuilder);
             var packageLinkProvider = new PackageLinkProvider(knownPackages);
             var packageLinkBuilder = new PackageLinkBuilder(packageLinkProvider);
 
+            var previousManifest = options.incremental() ? PageManifest.read(outputRoot) : new PageManifest();
+            var manifest = new PageManifest();
+            // The options only name the element lists, their links are part of the fingerprint through their checksum.
+            var fingerprintOptions = new ArrayList<>(options.getOutputOptions());
+            fingerprintOptions.add(externalLinks.getChecksum());
+            var fingerprinter = new PageFingerprinter(
+                getConfiguration(),
+                typeUniverse,
+                environment.getElementUtils(),
+                fingerprintOptions,
+                knownPackages);
+            universePhase.close();
+
+            var populatePhase = profiler.phase("populate pages");
             for (final Element includedElement : environment.getIncludedElements())
             {
                 if (includedElement instanceof PackageElement packageElement)
                 {
-                    processPackage(packageElement, typeUniverse, typeLinkBuilder, packageLinkBuilder, environment.getDocTrees());
+                    if (merging || !shard.includes(packageElement))
+                    {
+                        continue;
+                    }
+
+                    var page = packageFilePath(packageElement) + "/index.md";
+                    if (options.incremental())
+                    {
+                        var fingerprint = fingerprinter.fingerprint(packageElement);
+                        manifest.put(page, fingerprint);
+                        if (previousManifest.isUpToDate(outputRoot, page, fingerprint))
+                        {
+                            output.keep(outputPath(page));
+                            continue;
+                        }
+                    }
+
+                    var measurement = profiler.page(page, "package", packageElement.getQualifiedName().toString());
+                    var builder = processPackage(page, packageElement, typeUniverse, typeLinkBuilder, packageLinkBuilder, environment.getDocTrees());
+                    addModel(modelPages, builder);
+                    renderingEngine.submit(measurement.populated(builder));
                 }
                 else if (includedElement instanceof TypeElement typeElement)
                 {
-                    processType(environment, typeUniverse, classTree, typeElement, typeLinkBuilder, packageLinkBuilder, displayNameBuilder);
+                    if (merging || !shard.includes(environment.getElementUtils().getPackageOf(typeElement)))
+                    {
+                        continue;
+                    }
+
+                    var page = typeFilePath(typeElement) + ".md";
+                    if (options.incremental())
+                    {
+                        var fingerprint = fingerprinter.fingerprint(typeElement);
+                        manifest.put(page, fingerprint);
+                        if (previousManifest.isUpToDate(outputRoot, page, fingerprint))
+                        {
+                            output.keep(outputPath(page));
+                            continue;
+                        }
+                    }
+
+                    var measurement = profiler.page(page, "type", typeElement.getQualifiedName().toString());
+                    var builder = processType(page, environment, typeUniverse, classTree, typeElement, typeLinkBuilder, packageLinkBuilder, displayNameBuilder);
+                    addModel(modelPages, builder);
+                    renderingEngine.submit(measurement.populated(builder));
+                }
+            }
+
+            var typePages = typePages(knownTypes);
+            var elementList = processElementList(outputRoot, typePages);
+            addModel(modelPages, elementList);
+            renderingEngine.submit(elementList);
+            populatePhase.close();
+
+            if (merging)
+            {
+                try (var phase = profiler.phase("merge shards"))
+                {
+                    mergeShards(options.mergedShards(), outputRoot, renderingEngine);
+                }
+            }
+
+            // The pages which cover all packages are rendered by the merge run of a sharded build.
+            if (!shard.isPartial())
+            {
+                try (var phase = profiler.phase("constants"))
+                {
+                    for (final FileBuilder constantsPage : processConstants())
+                    {
+                        addModel(modelPages, constantsPage);
+                        renderingEngine.submit(constantsPage);
+                    }
+                }
+
+                if (options.searchIndexSharding() != null)
+                {
+                    try (var phase = profiler.phase("search index"))
+                    {
+                        for (final FileBuilder searchShard : processSearchIndex(outputRoot, typeUniverse, environment.getDocTrees(), knownPackages, typePages))
+                        {
+                            addModel(modelPages, searchShard);
+                            renderingEngine.submit(searchShard);
+                        }
+                    }
                 }
             }
 
-            processConstants();
+            try (var phase = profiler.phase("write pages"))
+            {
+                renderingEngine.awaitCompletion();
+            }
+
+            try (var phase = profiler.phase("commit output"))
+            {
+                if (options.incremental())
+                {
+                    manifest.write(output);
+                }
+
+                output.commit();
+            }
+
+            // Written after the commit, which would remove it as an orphan if it is inside the output directory.
+            if (modelPages != null)
+            {
+                try (var phase = profiler.phase("write model"))
+                {
+                    DocumentationModel.of(modelPages).write(options.modelFile());
+                }
+            }
         }
         catch (Exception exception)
         {
@@ -135,61 +304,149 @@ public class JavaMarkDoclet implements Doclet
             return false;
         }
 
+        if (profiler.isEnabled())
+        {
+            reporter.print(Diagnostic.Kind.NOTE, profiler.summary(options.profileTop()));
+            try
+            {
+                profiler.writeReport(options.profileReport(), options.profileTop());
+            }
+            catch (IOException e)
+            {
+                reporter.print(Diagnostic.Kind.WARNING, "Could not write the profile report " + options.profileReport() + ": " + e.getMessage());
+            }
+        }
+
         return true;
     }
 
-    private void processPackage(
-        PackageElement element, final TypeUniverse typeUniverse, final TypeLinkBuilder typeLinkBuilder, PackageLinkBuilder packageLinkBuilder,
+    private FileBuilder processPackage(
+        final String page, PackageElement element, final TypeUniverse typeUniverse, final TypeLinkBuilder typeLinkBuilder, PackageLinkBuilder packageLinkBuilder,
         final DocTrees docTrees)
-        throws IOException
     {
-        DocFile target = DocFile.createFileForOutput(
-            getConfiguration(),
-            DocPath.create(packageFilePath(element) + "/index.md")
-        );
-        new PackageFileBuilder(
-            Path.of(target.getPath()),
+        return new PackageFileBuilder(
+            Path.of(DocFile.createFileForOutput(getConfiguration(), DocPath.create("/")).getPath()),
+            outputPath(page),
             typeLinkBuilder,
             packageLinkBuilder,
             typeUniverse,
             docTrees)
-            .from(element)
-            .build();
+            .from(element);
     }
 
-    private void processType(
-        DocletEnvironment environment, final TypeUniverse typeUniverse,
+    private FileBuilder processType(
+        final String page, DocletEnvironment environment, final TypeUniverse typeUniverse,
         final ClassTree classTree,
         TypeElement typeElement, TypeLinkBuilder typeLinkBuilder, PackageLinkBuilder packageLinkBuilder,
         final TypeDisplayNameBuilder displayNameBuilder) throws IOException, DocletException
     {
-        DocFile target = DocFile.createFileForOutput(
-            getConfiguration(),
-            DocPath.create(typeFilePath(typeElement) + ".md")
-        );
-        new TypeFileBuilder(
+        return new TypeFileBuilder(
             getConfiguration(),
             typeUniverse,
             classTree,
             environment.getTypeUtils(),
-            Path.of(target.getPath()),
+            outputPath(page),
             packageLinkBuilder,
             typeLinkBuilder,
             displayNameBuilder)
-            .from(typeElement)
-            .build();
+            .from(typeElement);
+    }
+
+    private List<FileBuilder> processConstants() throws DocletException
+    {
+        return new ConstantsFileBuilder(
+            getConfiguration(),
+            outputPath(ConstantsFileBuilder.PAGE_NAME),
+            options.constantsPerPackage()
+        ).from();
+    }
+
+    private List<FileBuilder> processSearchIndex(
+        final Path outputRoot, final TypeUniverse typeUniverse, final DocTrees docTrees,
+        final Set<PackageElement> knownPackages, final Map<TypeElement, String> typePages)
+    {
+        var packagePages = new HashMap<PackageElement, String>();
+        for (final PackageElement packageElement : knownPackages)
+        {
+            packagePages.put(packageElement, packageFilePath(packageElement).replace(File.separatorChar, '/') + "/index");
+        }
+
+        return new SearchIndexBuilder(
+            getConfiguration(),
+            typeUniverse,
+            docTrees,
+            outputRoot,
+            options.searchIndexSharding()
+        ).from(packagePages, typePages);
+    }
+
+    /**
+     * Lists the page of every documented type, so other runs can link to them.
+     * The list covers all documented types, even in a sharded run.
+     */
+    private FileBuilder processElementList(final Path outputRoot, final Map<TypeElement, String> typePages)
+    {
+        var pages = new TreeMap<String, String>();
+        typePages.forEach((typeElement, page) -> pages.put(typeElement.getQualifiedName().toString(), page));
+        return new ModelFileBuilder(outputRoot, new MarkdownPage(ExternalLinks.FILE_NAME, Fragment.text(ExternalLinks.format(pages))));
+    }
+
+    /**
+     * {@return the page of every given type, relative to the output root, '/' separated and without extension}
+     */
+    private Map<TypeElement, String> typePages(final Set<TypeElement> knownTypes) throws IOException
+    {
+        var pages = new HashMap<TypeElement, String>();
+        for (final TypeElement typeElement : knownTypes)
+        {
+            pages.put(typeElement, typeFilePath(typeElement).replace(File.separatorChar, '/'));
+        }
+        return pages;
+    }
+
+    /**
+     * Adds the model of the given page to the documentation model, if it is saved.
+     */
+    private static void addModel(final List<PageModel> modelPages, final FileBuilder page)
+    {
+        if (modelPages != null && page.getModel() != null)
+        {
+            modelPages.add(page.getModel());
+        }
     }
 
-    private void processConstants() throws IOException, DocletException
+    /**
+     * Includes every page of the output directories of the given shards, except their manifests and element lists.
+     */
+    private void mergeShards(final List<Path> shards, final Path outputRoot, final PageRenderingEngine renderingEngine) throws IOException
+    {
+        for (final Path shard : shards)
+        {
+            var shardRoot = shard.toAbsolutePath().normalize();
+            try (var files = Files.walk(shardRoot))
+            {
+                for (final Path file : files.filter(Files::isRegularFile).toList())
+                {
+                    var relativePage = shardRoot.relativize(file);
+                    if (relativePage.toString().equals(PageManifest.FILE_NAME) || relativePage.toString().equals(ExternalLinks.FILE_NAME))
+                    {
+                        continue;
+                    }
+
+                    var page = outputRoot.resolve(relativePage);
+                    renderingEngine.submit(output -> output.include(page, file));
+                }
+            }
+        }
+    }
+
+    private Path outputPath(final String page)
     {
         DocFile target = DocFile.createFileForOutput(
             getConfiguration(),
-            DocPath.create("constant-values.md")
+            DocPath.create(page)
         );
-        new ConstantsFileBuilder(
-            getConfiguration(),
-            Path.of(target.getPath())
-        ).build();
+        return Path.of(target.getPath());
     }
 
     private String packageFilePath(PackageElement packageElement)
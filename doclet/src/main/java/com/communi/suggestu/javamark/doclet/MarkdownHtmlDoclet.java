@@ -0,0 +1,72 @@
+package com.communi.suggestu.javamark.doclet;
+
+import com.communi.suggestu.javamark.doclet.utils.JavaMarkOptions;
+import jdk.javadoc.doclet.Doclet;
+import jdk.javadoc.internal.doclets.formats.html.HtmlDoclet;
+import jdk.javadoc.internal.doclets.toolkit.DocletException;
+import jdk.javadoc.internal.doclets.toolkit.util.ClassTree;
+
+import javax.lang.model.element.TypeElement;
+import java.util.SortedSet;
+
+/**
+ * The standard doclet as it is driven by JavaMark.
+ * <p>
+ * Running it always initializes the {@link jdk.javadoc.internal.doclets.formats.html.HtmlConfiguration},
+ * which the markdown writers depend on. When {@link JavaMarkOptions#markdownOnly()} is set the HTML pages
+ * themselves are not generated, since they are deleted before the markdown is written anyway.
+ */
+public class MarkdownHtmlDoclet extends HtmlDoclet
+{
+    private final JavaMarkOptions options;
+
+    public MarkdownHtmlDoclet(final Doclet initiatingDoclet, final JavaMarkOptions options)
+    {
+        super(initiatingDoclet);
+        this.options = options;
+    }
+
+    @Override
+    protected void generateClassFiles(final SortedSet<TypeElement> typeElems, final ClassTree classTree) throws DocletException
+    {
+        if (options.markdownOnly())
+        {
+            return;
+        }
+
+        super.generateClassFiles(typeElems, classTree);
+    }
+
+    @Override
+    protected void generateModuleFiles() throws DocletException
+    {
+        if (options.markdownOnly())
+        {
+            return;
+        }
+
+        super.generateModuleFiles();
+    }
+
+    @Override
+    protected void generatePackageFiles(final ClassTree classTree) throws DocletException
+    {
+        if (options.markdownOnly())
+        {
+            return;
+        }
+
+        super.generatePackageFiles(classTree);
+    }
+
+    @Override
+    protected void generateOtherFiles(final ClassTree classTree) throws DocletException
+    {
+        if (options.markdownOnly())
+        {
+            return;
+        }
+
+        super.generateOtherFiles(classTree);
+    }
+}
@@ -12,16 +12,24 @@ import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.SimpleAnnotationValueVisitor9;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+/**
+ * Renders the documented annotations of an element or type.
+ * <p>
+ * The same annotations repeat on many members, so every rendered annotation is cached by its structure and the
+ * rendering context, and shared with all builders derived from this one.
+ */
 public class AnnotationBuilder
 {
 
     private final TypeUniverse typeUniverse;
     private final TypeLinkProvider typeLinkProvider;
     private final boolean lineBreak;
+    private final Map<RenderingKey, Rendering> renderings;
 
     private final StringBuilder results = new StringBuilder();
 
@@ -30,14 +38,21 @@ public class AnnotationBuilder
 
     public AnnotationBuilder(final TypeUniverse typeUniverse, final TypeLinkProvider typeLinkProvider)
     {
-        this.typeUniverse = typeUniverse;
-        this.typeLinkProvider = typeLinkProvider;
-        this.lineBreak = false;
+        this(typeUniverse, typeLinkProvider, new HashMap<>());
     }
 
-    private AnnotationBuilder(final TypeUniverse typeUniverse, final TypeLinkProvider typeLinkProvider, final boolean lineBreak) {
+    /**
+     * @param renderings the annotations which were already rendered, shared with the other builders of the run
+     */
+    AnnotationBuilder(final TypeUniverse typeUniverse, final TypeLinkProvider typeLinkProvider, final Map<RenderingKey, Rendering> renderings)
+    {
+        this(typeUniverse, typeLinkProvider, renderings, false);
+    }
+
+    private AnnotationBuilder(final TypeUniverse typeUniverse, final TypeLinkProvider typeLinkProvider, final Map<RenderingKey, Rendering> renderings, final boolean lineBreak) {
         this.typeUniverse = typeUniverse;
         this.typeLinkProvider = typeLinkProvider;
+        this.renderings = renderings;
         this.lineBreak = lineBreak;
     }
 
@@ -45,7 +60,7 @@ public class AnnotationBuilder
         if (this.lineBreak == lineBreak)
             return this;
 
-        return new AnnotationBuilder(typeUniverse, typeLinkProvider, lineBreak);
+        return new AnnotationBuilder(typeUniverse, typeLinkProvider, renderings, lineBreak);
     }
 
     public AnnotationBuilder withLineBreak() {
@@ -57,85 +72,98 @@ public class AnnotationBuilder
     }
 
     public AnnotationBuilder from(List<? extends AnnotationMirror> descList) {
-        StringBuilder annotation;
         for (AnnotationMirror aDesc : descList) {
-            TypeElement annotationElement = (TypeElement)aDesc.getAnnotationType().asElement();
-            // If an annotation is not documented, do not add it to the list. If
-            // the annotation is of a repeatable type, and if it is not documented
-            // and also if its container annotation is not documented, do not add it
-            // to the list. If an annotation of a repeatable type is not documented
-            // but its container is documented, it will be added to the list.
-            if (!typeUniverse.isDocumentedAnnotation(annotationElement) &&
-                (!isAnnotationDocumented && !isContainerDocumented)) {
-                continue;
+            // Whether an annotation is printed depends on the annotations before it, so that state is part of the key.
+            var key = new RenderingKey(aDesc.toString(), typeUniverse.isMandated(aDesc), lineBreak, isAnnotationDocumented, isContainerDocumented);
+            var rendering = renderings.get(key);
+            if (rendering == null) {
+                var annotation = new StringBuilder();
+                render(aDesc, annotation);
+                rendering = new Rendering(annotation.toString(), isAnnotationDocumented, isContainerDocumented);
+                renderings.put(key, rendering);
             }
 
-            annotation = new StringBuilder();
-            isAnnotationDocumented = false;
-            Map<? extends ExecutableElement, ? extends AnnotationValue> pairs = aDesc.getElementValues();
-            // If the annotation is mandated, do not print the container.
-            if (typeUniverse.isMandated(aDesc)) {
-                for (ExecutableElement ee : pairs.keySet()) {
-                    AnnotationValue annotationValue = pairs.get(ee);
-                    List<AnnotationValue> annotationTypeValues = new ArrayList<>();
+            results.append(rendering.text());
+            isAnnotationDocumented = rendering.isAnnotationDocumented();
+            isContainerDocumented = rendering.isContainerDocumented();
+        }
 
-                    new SimpleAnnotationValueVisitor9<Void, List<AnnotationValue>>() {
-                        @Override
-                        public Void visitArray(List<? extends AnnotationValue> vals, List<AnnotationValue> p) {
-                            p.addAll(vals);
-                            return null;
-                        }
+        return this;
+    }
 
-                        @Override
-                        protected Void defaultAction(Object o, List<AnnotationValue> p) {
-                            p.add(annotationValue);
-                            return null;
-                        }
-                    }.visit(annotationValue, annotationTypeValues);
+    private void render(AnnotationMirror aDesc, StringBuilder annotation) {
+        TypeElement annotationElement = (TypeElement)aDesc.getAnnotationType().asElement();
+        // If an annotation is not documented, do not add it to the list. If
+        // the annotation is of a repeatable type, and if it is not documented
+        // and also if its container annotation is not documented, do not add it
+        // to the list. If an annotation of a repeatable type is not documented
+        // but its container is documented, it will be added to the list.
+        if (!typeUniverse.isDocumentedAnnotation(annotationElement) &&
+            (!isAnnotationDocumented && !isContainerDocumented)) {
+            return;
+        }
 
-                    String sep = "";
-                    for (AnnotationValue av : annotationTypeValues) {
-                        annotation.append(sep);
-                        annotation.append(annotationValueToContent(av));
-                        sep = " ";
-                    }
-                }
-            } else if (isAnnotationArray(pairs)) {
-                // If the container has 1 or more value defined and if the
-                // repeatable type annotation is not documented, do not print
-                // the container.
-                if (pairs.size() == 1 && isAnnotationDocumented) {
-                    List<AnnotationValue> annotationTypeValues = new ArrayList<>();
-                    for (AnnotationValue a :  pairs.values()) {
-                        new SimpleAnnotationValueVisitor9<Void, List<AnnotationValue>>() {
-                            @Override
-                            public Void visitArray(List<? extends AnnotationValue> vals, List<AnnotationValue> annotationTypeValues) {
-                                annotationTypeValues.addAll(vals);
-                                return null;
-                            }
-                        }.visit(a, annotationTypeValues);
+        isAnnotationDocumented = false;
+        Map<? extends ExecutableElement, ? extends AnnotationValue> pairs = aDesc.getElementValues();
+        // If the annotation is mandated, do not print the container.
+        if (typeUniverse.isMandated(aDesc)) {
+            for (ExecutableElement ee : pairs.keySet()) {
+                AnnotationValue annotationValue = pairs.get(ee);
+                List<AnnotationValue> annotationTypeValues = new ArrayList<>();
+
+                new SimpleAnnotationValueVisitor9<Void, List<AnnotationValue>>() {
+                    @Override
+                    public Void visitArray(List<? extends AnnotationValue> vals, List<AnnotationValue> p) {
+                        p.addAll(vals);
+                        return null;
                     }
-                    String sep = "";
-                    for (AnnotationValue av : annotationTypeValues) {
-                        annotation.append(sep);
-                        annotation.append(annotationValueToContent(av));
-                        sep = " ";
+
+                    @Override
+                    protected Void defaultAction(Object o, List<AnnotationValue> p) {
+                        p.add(annotationValue);
+                        return null;
                     }
+                }.visit(annotationValue, annotationTypeValues);
+
+                String sep = "";
+                for (AnnotationValue av : annotationTypeValues) {
+                    annotation.append(sep);
+                    annotation.append(annotationValueToContent(av));
+                    sep = " ";
                 }
-                // If the container has 1 or more value defined and if the
-                // repeatable type annotation is not documented, print the container.
-                else {
-                    addAnnotations(annotationElement, annotation, pairs, false);
+            }
+        } else if (isAnnotationArray(pairs)) {
+            // If the container has 1 or more value defined and if the
+            // repeatable type annotation is not documented, do not print
+            // the container.
+            if (pairs.size() == 1 && isAnnotationDocumented) {
+                List<AnnotationValue> annotationTypeValues = new ArrayList<>();
+                for (AnnotationValue a :  pairs.values()) {
+                    new SimpleAnnotationValueVisitor9<Void, List<AnnotationValue>>() {
+                        @Override
+                        public Void visitArray(List<? extends AnnotationValue> vals, List<AnnotationValue> annotationTypeValues) {
+                            annotationTypeValues.addAll(vals);
+                            return null;
+                        }
+                    }.visit(a, annotationTypeValues);
+                }
+                String sep = "";
+                for (AnnotationValue av : annotationTypeValues) {
+                    annotation.append(sep);
+                    annotation.append(annotationValueToContent(av));
+                    sep = " ";
                 }
             }
+            // If the container has 1 or more value defined and if the
+            // repeatable type annotation is not documented, print the container.
             else {
-                addAnnotations(annotationElement, annotation, pairs, this.lineBreak);
+                addAnnotations(annotationElement, annotation, pairs, false);
             }
-            annotation.append(lineBreak ? Constants.MARKDOWN_NEW_LINE : "");
-            results.append(annotation);
         }
-
-        return this;
+        else {
+            addAnnotations(annotationElement, annotation, pairs, this.lineBreak);
+        }
+        annotation.append(lineBreak ? Constants.MARKDOWN_NEW_LINE : "");
     }
 
     private void addAnnotations(
@@ -248,7 +276,7 @@ public class AnnotationBuilder
 
             @Override
             public String visitAnnotation(AnnotationMirror a, Void p) {
-                return new AnnotationBuilder(typeUniverse, typeLinkProvider, false)
+                return new AnnotationBuilder(typeUniverse, typeLinkProvider, renderings, false)
                     .from(List.of(a))
                     .build();
             }
@@ -277,4 +305,18 @@ public class AnnotationBuilder
     public String build() {
         return results.toString();
     }
+
+    /**
+     * The structure of a rendered annotation, and the context it was rendered in.
+     */
+    record RenderingKey(String annotation, boolean isMandated, boolean lineBreak, boolean isAnnotationDocumented, boolean isContainerDocumented)
+    {
+    }
+
+    /**
+     * A rendered annotation, and the state the builder was left in after rendering it.
+     */
+    record Rendering(String text, boolean isAnnotationDocumented, boolean isContainerDocumented)
+    {
+    }
 }
@@ -1,10 +1,13 @@
 package com.communi.suggestu.javamark.doclet.builders;
 
+import com.communi.suggestu.javamark.doclet.model.Fragment;
+import com.communi.suggestu.javamark.doclet.model.MarkdownPage;
 import com.communi.suggestu.javamark.doclet.utils.Constants;
 import com.communi.suggestu.javamark.doclet.writers.MarkdownConstantsSummaryWriterImpl;
 import jdk.javadoc.internal.doclets.formats.html.HtmlConfiguration;
 import jdk.javadoc.internal.doclets.toolkit.DocletException;
 import jdk.javadoc.internal.doclets.toolkit.util.DocFile;
+import jdk.javadoc.internal.doclets.toolkit.util.DocFileIOException;
 import jdk.javadoc.internal.doclets.toolkit.util.DocPath;
 import jdk.javadoc.internal.doclets.toolkit.util.Utils;
 import jdk.javadoc.internal.doclets.toolkit.util.VisibleMemberTable;
@@ -15,12 +18,13 @@ import javax.lang.model.element.Element;
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
-import java.io.IOException;
-import java.nio.file.Files;
+import java.io.File;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -28,8 +32,15 @@ import java.util.TreeSet;
 import static jdk.javadoc.internal.doclets.toolkit.util.VisibleMemberTable.Kind.ENUM_CONSTANTS;
 import static jdk.javadoc.internal.doclets.toolkit.util.VisibleMemberTable.Kind.FIELDS;
 
+/**
+ * Builds the constants page, and optionally a constants page per package.
+ * <p>
+ * The constant fields of all included classes are collected in a single scan when the pages are populated,
+ * which happens on the doclet thread. The populated pages only hold plain content, and can be written by any thread.
+ */
 public class ConstantsFileBuilder
 {
+    public static final String PAGE_NAME = "constant-values.md";
 
     /**
      * The maximum number of package directories shown in the headings of
@@ -37,36 +48,36 @@ public class ConstantsFileBuilder
      */
     private static final int MAX_CONSTANT_VALUE_INDEX_LENGTH = 2;
 
-    private final HtmlConfiguration      configuration;
-    private final Path                   rootPath;
-    private final Path                   path;
+    private final HtmlConfiguration configuration;
+    private final Path              rootPath;
+    private final Path              path;
+    private final boolean           perPackage;
 
-    private final Utils       utils;
+    private final Utils utils;
 
     /**
-     * The set of type elements that have constant fields.
+     * The constant fields of the included classes, per package in the order of the configuration.
+     * Packages and classes without constant fields are left out.
      */
-    protected final Set<TypeElement> typeElementsWithConstFields;
+    private final Map<PackageElement, List<ClassConstants>> constantsByPackage = new LinkedHashMap<>();
 
-    /**
-     * The set of package-group headings.
-     */
-    protected final Set<String> packageGroupHeadings;
-
-    /**
-     * The current package being documented.
-     */
-    private PackageElement currentPackage;
+    public ConstantsFileBuilder(
+        final HtmlConfiguration configuration,
+        final Path path)
+    {
+        this(configuration, path, false);
+    }
 
-    private final MarkdownConstantsSummaryWriterImpl writer;
     /**
-     * The current class being documented.
+     * @param configuration the configuration of the standard doclet
+     * @param path          the path of the constants page
+     * @param perPackage    true if the constants of every package are written to a page next to the package index,
+     *                      in which case the constants page only links to them
      */
-    private TypeElement currentClass;
-
     public ConstantsFileBuilder(
         final HtmlConfiguration configuration,
-        final Path path)
+        final Path path,
+        final boolean perPackage)
     {
         this.configuration = configuration;
 
@@ -79,119 +90,183 @@ public class ConstantsFileBuilder
 
         this.rootPath = Path.of(target.getPath());
         this.path = rootPath.relativize(path);
-
-        this.typeElementsWithConstFields = new HashSet<>();
-        this.packageGroupHeadings = new TreeSet<>(utils::compareStrings);
-        this.writer = new MarkdownConstantsSummaryWriterImpl(configuration);
+        this.perPackage = perPackage;
     }
 
-    public void build() throws DocletException, IOException
+    /**
+     * Scans all included classes for constant fields, and populates the constants pages.
+     *
+     * @return the populated pages, none if no included class has constant fields
+     */
+    public List<FileBuilder> from() throws DocletException
     {
-        boolean anyConstants = configuration.packages.stream().anyMatch(this::hasConstantField);
-        if (!anyConstants) {
-            return;
+        scan();
+        if (constantsByPackage.isEmpty())
+        {
+            return List.of();
         }
 
-        String builder =
-            "--- \n" +
-                "title: Constants\n" +
-                "aside: false \n" +
-                "sidebar: false \n" +
-                "order: 1000000000 \n" +
-                "---\n";
-
-        buildConstantSummary();
-
-        var content = new ContentBuilder();
-        writer.printDocument(content);
-        builder += Constants.MARKDOWN_NEW_LINE + Constants.MARKDOWN_NEW_LINE + content;
-
-        var path = this.rootPath.resolve(this.path);
+        if (!perPackage)
+        {
+            return List.of(page(path, "Constants", buildConstantSummary()));
+        }
 
-        Files.createDirectories(path.getParent());
-        Files.writeString(path, builder);
+        var pages = new ArrayList<FileBuilder>();
+        pages.add(page(path, "Constants", buildPackageIndex()));
+        for (final Map.Entry<PackageElement, List<ClassConstants>> entry : constantsByPackage.entrySet())
+        {
+            var packageName = entry.getKey().isUnnamed() ? "default" : utils.getPackageName(entry.getKey());
+            pages.add(page(packagePagePath(entry.getKey()), "Constants of " + packageName, buildPackageConstants(entry.getKey(), entry.getValue())));
+        }
+        return pages;
     }
 
-    private void buildConstantSummary() throws DocletException {
-        writer.getHeader();
+    /**
+     * Collects the constant fields of every included class, once per package.
+     */
+    private void scan()
+    {
+        constantsByPackage.clear();
+        for (PackageElement pkg : configuration.packages)
+        {
+            SortedSet<TypeElement> classes = !pkg.isUnnamed()
+                ? utils.getAllClasses(pkg)
+                : configuration.typeElementCatalog.allUnnamedClasses();
 
-        buildContents();
-        buildConstantSummaries();
+            var classConstants = new ArrayList<ClassConstants>();
+            for (TypeElement te : classes)
+            {
+                if (!utils.isIncluded(te))
+                {
+                    continue;
+                }
 
-        writer.addFooter();
+                var members = constantMembers(te);
+                if (!members.isEmpty())
+                {
+                    classConstants.add(new ClassConstants(te, members));
+                }
+            }
+
+            if (!classConstants.isEmpty())
+            {
+                constantsByPackage.put(pkg, classConstants);
+            }
+        }
     }
 
-    private void buildContents()
+    private Content buildConstantSummary() throws DocFileIOException
     {
+        var writer = new MarkdownConstantsSummaryWriterImpl(configuration);
+        writer.getHeader();
+
+        Set<String> packageGroupHeadings = new TreeSet<>(utils::compareStrings);
         Content contentList = writer.getContentsHeader();
-        packageGroupHeadings.clear();
-        for (PackageElement pkg : configuration.packages) {
+        for (PackageElement pkg : constantsByPackage.keySet())
+        {
             String abbrevPackageName = getAbbrevPackageName(pkg);
-            if (hasConstantField(pkg) && !packageGroupHeadings.contains(abbrevPackageName)) {
+            if (packageGroupHeadings.add(abbrevPackageName))
+            {
                 writer.addLinkToPackageContent(abbrevPackageName, contentList);
-                packageGroupHeadings.add(abbrevPackageName);
             }
         }
         writer.addContentsList(contentList);
-    }
 
-    protected void buildConstantSummaries() throws DocletException
-    {
         packageGroupHeadings.clear();
         Content summaries = writer.getConstantSummaries();
-        for (PackageElement aPackage : configuration.packages) {
-            if (hasConstantField(aPackage)) {
-                currentPackage = aPackage;
-                //Build the documentation for the current package.
-                buildPackageHeader(summaries);
-                buildClassConstantSummary();
+        for (Map.Entry<PackageElement, List<ClassConstants>> entry : constantsByPackage.entrySet())
+        {
+            String abbrevPkgName = getAbbrevPackageName(entry.getKey());
+            if (packageGroupHeadings.add(abbrevPkgName))
+            {
+                writer.addPackageGroup(abbrevPkgName, summaries);
             }
+            addClassConstants(writer, entry.getValue());
         }
         writer.addConstantSummaries(summaries);
+
+        writer.addFooter();
+        return print(writer);
     }
 
-    private void buildPackageHeader(Content target)
+    private Content buildPackageIndex() throws DocFileIOException
     {
-        String abbrevPkgName = getAbbrevPackageName(currentPackage);
-        if (!packageGroupHeadings.contains(abbrevPkgName))
+        var writer = new MarkdownConstantsSummaryWriterImpl(configuration);
+        writer.getHeader();
+
+        Content contentList = writer.getContentsHeader();
+        for (PackageElement pkg : constantsByPackage.keySet())
         {
-            writer.addPackageGroup(abbrevPkgName, target);
-            packageGroupHeadings.add(abbrevPkgName);
+            var link = path.getParent() == null
+                ? packagePagePath(pkg)
+                : path.getParent().relativize(packagePagePath(pkg));
+            writer.addLinkToPackageConstants(pkg.isUnnamed() ? "" : utils.getPackageName(pkg), link.toString().replace(File.separatorChar, '/'), contentList);
         }
+        writer.addContentsList(contentList);
+
+        writer.addFooter();
+        return print(writer);
     }
 
-    /**
-     * Builds the summary for the current class.
-     *
-     * @throws DocletException if there is a problem while building the documentation
-     */
-    protected void buildClassConstantSummary()
-        throws DocletException {
-        SortedSet<TypeElement> classes = !currentPackage.isUnnamed()
-            ? utils.getAllClasses(currentPackage)
-            : configuration.typeElementCatalog.allUnnamedClasses();
-        Content classConstantHeader = writer.getClassConstantHeader();
-        for (TypeElement te : classes) {
-            if (!typeElementsWithConstFields.contains(te) ||
-                !utils.isIncluded(te)) {
-                continue;
-            }
-            currentClass = te;
-            //Build the documentation for the current class.
+    private Content buildPackageConstants(final PackageElement pkg, final List<ClassConstants> classConstants) throws DocFileIOException
+    {
+        var writer = new MarkdownConstantsSummaryWriterImpl(configuration);
+        writer.getHeader();
 
-            buildConstantMembers(classConstantHeader);
+        Content summaries = writer.getConstantSummaries();
+        writer.addPackageGroup(pkg.isUnnamed() ? "" : utils.getPackageName(pkg), summaries);
+        writer.addConstantSummaries(summaries);
+        addClassConstants(writer, classConstants);
 
+        writer.addFooter();
+        return print(writer);
+    }
+
+    private void addClassConstants(final MarkdownConstantsSummaryWriterImpl writer, final List<ClassConstants> classConstants)
+    {
+        Content classConstantHeader = writer.getClassConstantHeader();
+        for (ClassConstants constants : classConstants)
+        {
+            writer.addConstantMembers(constants.typeElement(), constants.members(), classConstantHeader);
         }
         writer.addClassConstant(classConstantHeader);
     }
 
+    private Content print(final MarkdownConstantsSummaryWriterImpl writer) throws DocFileIOException
+    {
+        var content = new ContentBuilder();
+        writer.printDocument(content);
+        return content;
+    }
+
+    private FileBuilder page(final Path page, final String title, final Content content)
+    {
+        Fragment markdown = writer -> {
+            writer.write(
+                "--- \n" +
+                    "title: " + title + "\n" +
+                    "aside: false \n" +
+                    "sidebar: false \n" +
+                    "order: 1000000000 \n" +
+                    "---\n");
+            writer.write(Constants.MARKDOWN_NEW_LINE + Constants.MARKDOWN_NEW_LINE);
+            content.write(writer, "\n", true);
+        };
+        return new ModelFileBuilder(rootPath, new MarkdownPage(page.toString().replace(File.separatorChar, '/'), markdown));
+    }
+
     /**
-     * Builds the summary of constant members in the class.
-     *
-     * @param target the content to which the table of constant members will be added
+     * {@return the path of the constants page of the given package, next to the index of the package}
+     * The unnamed package has no directory of its own, so its page is named after it instead.
      */
-    protected void buildConstantMembers(Content target) {
-        new ConstantFieldBuilder(currentClass).buildMembersSummary(target);
+    private Path packagePagePath(final PackageElement pkg)
+    {
+        if (pkg.isUnnamed())
+        {
+            return Path.of("constant-values-default.md");
+        }
+
+        return Path.of(utils.getPackageName(pkg).replace(".", File.separator).toLowerCase(Locale.ROOT), PAGE_NAME);
     }
 
     /**
@@ -216,95 +291,33 @@ public class ConstantsFileBuilder
     }
 
     /**
-     * {@return true if the given package has constant fields to document}
-     *
-     * @param pkg the package to be checked
-     */
-    private boolean hasConstantField(PackageElement pkg)
-    {
-        SortedSet<TypeElement> classes = !pkg.isUnnamed()
-            ? utils.getAllClasses(pkg)
-            : configuration.typeElementCatalog.allUnnamedClasses();
-        boolean found = false;
-        for (TypeElement te : classes)
-        {
-            if (utils.isIncluded(te) && hasConstantField(te))
-            {
-                found = true;
-            }
-        }
-        return found;
-    }
-
-    /**
-     * {@return true if the given class has constant fields to document}
+     * {@return the visible fields and enum constants of the given type which have a constant value}
      *
-     * @param typeElement the class to be checked
+     * @param typeElement the type to be checked
      */
-    private boolean hasConstantField(TypeElement typeElement)
+    private SortedSet<VariableElement> constantMembers(TypeElement typeElement)
     {
         VisibleMemberTable vmt = configuration.getVisibleMemberTable(typeElement);
-        List<? extends Element> fields = vmt.getVisibleMembers(FIELDS);
-        for (Element f : fields)
+        List<Element> members = new ArrayList<>();
+        members.addAll(vmt.getVisibleMembers(FIELDS));
+        members.addAll(vmt.getVisibleMembers(ENUM_CONSTANTS));
+        SortedSet<VariableElement> includes =
+            new TreeSet<>(utils.comparators.generalPurposeComparator());
+        for (Element element : members)
         {
-            VariableElement field = (VariableElement) f;
-            if (field.getConstantValue() != null)
+            VariableElement member = (VariableElement) element;
+            if (member.getConstantValue() != null)
             {
-                typeElementsWithConstFields.add(typeElement);
-                return true;
+                includes.add(member);
             }
         }
-        return false;
+        return includes;
     }
 
-
     /**
-     * Builder for the table of fields with constant values.
+     * The constant fields of a single class.
      */
-    private class ConstantFieldBuilder {
-
-        /**
-         * The type element that we are examining constants for.
-         */
-        protected TypeElement typeElement;
-
-        /**
-         * Constructs a {@code ConstantFieldBuilder}.
-         * @param typeElement the type element that we are examining constants for
-         */
-        public ConstantFieldBuilder(TypeElement typeElement) {
-            this.typeElement = typeElement;
-        }
-
-        /**
-         * Builds the table of constants for a given class.
-         *
-         * @param target the content to which the table of class constants will be added
-         */
-        protected void buildMembersSummary(Content target) {
-            SortedSet<VariableElement> members = members();
-            if (!members.isEmpty()) {
-                writer.addConstantMembers(typeElement, members, target);
-            }
-        }
-
-        /**
-         * {@return a set of visible constant fields for the given type}
-         */
-        protected SortedSet<VariableElement> members() {
-            VisibleMemberTable vmt = configuration.getVisibleMemberTable(typeElement);
-            List<Element> members = new ArrayList<>();
-            members.addAll(vmt.getVisibleMembers(FIELDS));
-            members.addAll(vmt.getVisibleMembers(ENUM_CONSTANTS));
-            SortedSet<VariableElement> includes =
-                new TreeSet<>(utils.comparators.generalPurposeComparator());
-            for (Element element : members) {
-                VariableElement member = (VariableElement)element;
-                if (member.getConstantValue() != null) {
-                    includes.add(member);
-                }
-            }
-            return includes;
-        }
+    private record ClassConstants(TypeElement typeElement, SortedSet<VariableElement> members)
+    {
     }
 }
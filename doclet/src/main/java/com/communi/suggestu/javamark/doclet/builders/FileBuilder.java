@@ -0,0 +1,25 @@
+package com.communi.suggestu.javamark.doclet.builders;
+
+import com.communi.suggestu.javamark.doclet.model.PageModel;
+import com.communi.suggestu.javamark.doclet.rendering.PageOutput;
+
+import java.io.IOException;
+
+/**
+ * A builder for a single generated file.
+ * <p>
+ * Everything which touches the javac model or the doclet configuration happens while the builder is populated,
+ * {@link #build(PageOutput)} only serializes the collected content and writes it, and may therefore run on any thread.
+ */
+public interface FileBuilder
+{
+    void build(PageOutput output) throws IOException;
+
+    /**
+     * {@return the model of the populated page, or null if the page is not part of the documentation model}
+     */
+    default PageModel getModel()
+    {
+        return null;
+    }
+}
@@ -37,11 +37,19 @@ public class MemberSummaryBuilder
         final TypeElement typeElement,
         final ClassTree classTree
     )
+    {
+        this(configuration, typeElement, new ClassWriter(configuration, typeElement, classTree));
+    }
+
+    public MemberSummaryBuilder(
+        final HtmlConfiguration configuration,
+        final TypeElement typeElement,
+        final ClassWriter classWriter
+    )
     {
         this.visibleMemberTable = configuration.getVisibleMemberTable(typeElement);
         this.summaryWriters = new EnumMap<>(VisibleMemberTable.Kind.class);
 
-        var classWriter = new ClassWriter(configuration, typeElement, classTree);
         addWriterIfVisible(NESTED_CLASSES, new MarkdownNestedClassWriterImpl(classWriter));
         addWriterIfVisible(ENUM_CONSTANTS, new MarkdownEnumConstantsWriterImpl(classWriter));
         addWriterIfVisible(FIELDS, new MarkdownFieldWriterImpl(classWriter));
@@ -0,0 +1,39 @@
+package com.communi.suggestu.javamark.doclet.builders;
+
+import com.communi.suggestu.javamark.doclet.model.PageModel;
+import com.communi.suggestu.javamark.doclet.rendering.ModelRenderer;
+import com.communi.suggestu.javamark.doclet.rendering.PageOutput;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Writes a page whose model is already complete.
+ */
+public class ModelFileBuilder implements FileBuilder
+{
+    private final Path      rootPath;
+    private final PageModel model;
+
+    /**
+     * @param rootPath the output directory, which the page of the model is relative to
+     * @param model    the page
+     */
+    public ModelFileBuilder(final Path rootPath, final PageModel model)
+    {
+        this.rootPath = rootPath;
+        this.model = model;
+    }
+
+    @Override
+    public PageModel getModel()
+    {
+        return model;
+    }
+
+    @Override
+    public void build(final PageOutput output) throws IOException
+    {
+        output.write(rootPath.resolve(model.page()), writer -> ModelRenderer.render(model, writer));
+    }
+}
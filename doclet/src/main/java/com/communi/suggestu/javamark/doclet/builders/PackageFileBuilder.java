@@ -1,28 +1,34 @@
 package com.communi.suggestu.javamark.doclet.builders;
 
+import com.communi.suggestu.javamark.doclet.model.PackageModel;
+import com.communi.suggestu.javamark.doclet.rendering.ModelRenderer;
+import com.communi.suggestu.javamark.doclet.rendering.PageOutput;
 import com.communi.suggestu.javamark.doclet.utils.ElementUtils;
 import com.communi.suggestu.javamark.doclet.utils.TypeUniverse;
 import com.sun.source.util.DocTrees;
-import org.apache.commons.lang3.StringUtils;
 
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
-import javax.lang.model.util.Elements;
+import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
 
-public class PackageFileBuilder {
+public class PackageFileBuilder implements FileBuilder {
     private final Path path;
+    private final Path rootPath;
     private final TypeLinkBuilder typeLinkBuilder;
     private final PackageLinkBuilder packageLinkBuilder;
     private final TypeUniverse typeUniverse;
     private final DocTrees     docTrees;
-    private       String       result = null;
+    private       PackageModel model = null;
 
-    public PackageFileBuilder(Path path, TypeLinkBuilder typeLinkBuilder, PackageLinkBuilder packageLinkBuilder, TypeUniverse typeUniverse, final DocTrees docTrees) {
+    /**
+     * @param rootPath the output directory, which the page of the model is relative to
+     * @param path     the file of the page
+     */
+    public PackageFileBuilder(Path rootPath, Path path, TypeLinkBuilder typeLinkBuilder, PackageLinkBuilder packageLinkBuilder, TypeUniverse typeUniverse, final DocTrees docTrees) {
+        this.rootPath = rootPath;
         this.path = path;
         this.typeLinkBuilder = typeLinkBuilder;
         this.packageLinkBuilder = packageLinkBuilder;
@@ -31,96 +37,72 @@ public class PackageFileBuilder {
     }
 
     public PackageFileBuilder from(PackageElement pkg) {
-        StringBuilder builder = new StringBuilder();
-        // 1. Frontmatter
-        builder.append("---\n");
-        builder.append("title: ").append(pkg.getSimpleName()).append("\n");
-        builder.append("sidebar: false").append("\n");
-        builder.append("---\n\n");
-        // 2. Header
-        builder.append("# Package: ").append(pkg.getQualifiedName()).append("\n\n---\n\n");
-        // 3. Declaration
-        builder.append("```").append("\n");
-        var annotations = ElementUtils.getAnnotations(pkg);
-        if (!annotations.trim().isBlank())
-            builder.append(annotations).append("\n");
-        builder.append("package ").append(pkg.getQualifiedName()).append(";\n```\n");
-        // 4. Javadoc
         String docComment = ElementUtils.getDocComment(pkg, docTrees);
-        if (StringUtils.isNotBlank(docComment)) {
-            builder.append(docComment).append("\n\n");
-        }
-        // 5. Package Contents
-        builder.append("### Package Contents\n\n");
-        builder.append(buildContentsTabs(pkg));
-        // 6. Related Section
-        String relatedSection = buildRelatedSection(pkg);
-        if (StringUtils.isNotBlank(relatedSection)) {
-            builder.append("\n### Related\n\n").append(relatedSection);
-        }
-        result = builder.toString();
+        model = new PackageModel(
+            rootPath.relativize(path).toString().replace(File.separatorChar, '/'),
+            pkg.getSimpleName().toString(),
+            pkg.getQualifiedName().toString(),
+            ElementUtils.getAnnotations(pkg),
+            docComment == null ? "" : docComment,
+            extractTypes(pkg),
+            extractParent(pkg),
+            extractChildren(pkg));
         return this;
     }
 
-    private String buildContentsTabs(PackageElement pkg) {
-        List<TypeElement> typesInPkg = typeUniverse.getTypesInPackage(pkg);
-        Map<String, List<TypeElement>> categories = categorizeTypes(typesInPkg);
-        VitepressTabbedEnvironmentBuilder tabs = new VitepressTabbedEnvironmentBuilder().withKey("PackageContents");
-        tabs.addTab("All Types", sb -> sb.append(buildTypeTable(typesInPkg, pkg)));
-        tabs.addTab("Interfaces", sb -> sb.append(buildTypeTable(categories.get("Interfaces"), pkg)));
-        tabs.addTab("Classes", sb -> sb.append(buildTypeTable(categories.get("Classes"), pkg)));
-        tabs.addTab("Enums", sb -> sb.append(buildTypeTable(categories.get("Enums"), pkg)));
-        tabs.addTab("Records", sb -> sb.append(buildTypeTable(categories.get("Records"), pkg)));
-        return tabs.build();
-    }
-
-    private Map<String, List<TypeElement>> categorizeTypes(List<TypeElement> types) {
-        Map<String, List<TypeElement>> map = new HashMap<>();
-        map.put("Interfaces", types.stream().filter(t -> t.getKind().isInterface() && !ElementUtils.isRecord(t)).collect(Collectors.toList()));
-        map.put("Classes", types.stream().filter(t -> t.getKind().isClass() && !ElementUtils.isEnum(t) && !ElementUtils.isRecord(t)).collect(Collectors.toList()));
-        map.put("Enums", types.stream().filter(ElementUtils::isEnum).collect(Collectors.toList()));
-        map.put("Records", types.stream().filter(ElementUtils::isRecord).collect(Collectors.toList()));
-        return map;
-    }
-
-    private String buildTypeTable(List<TypeElement> types, PackageElement in) {
-        if (types == null || types.isEmpty()) return "No types found.";
-        TableBuilder table = new HtmlTableBuilder().withHeaders("Class", "Description");
-        for (TypeElement type : types) {
-            String link = typeLinkBuilder.withDisplayMode(TypeDisplayNameBuilder.DisplayMode.SIMPLE_NAME).buildHtml(in, type.asType());
+    private List<PackageModel.TypeEntry> extractTypes(PackageElement pkg) {
+        List<PackageModel.TypeEntry> types = new ArrayList<>();
+        for (TypeElement type : typeUniverse.getTypesInPackage(pkg)) {
+            String link = typeLinkBuilder.withDisplayMode(TypeDisplayNameBuilder.DisplayMode.SIMPLE_NAME).buildHtml(pkg, type.asType());
             String doc = ElementUtils.getDocComment(type, docTrees);
             if (doc != null && doc.endsWith("\n"))
                 doc = doc.substring(0, doc.length() - 1);
             String desc = (doc != null && !doc.isEmpty()) ? doc : "";
-            table.addRow(link, desc);
+            types.add(new PackageModel.TypeEntry(categorize(type), link, desc));
         }
-        return table.build();
+        return types;
+    }
+
+    private PackageModel.Category categorize(TypeElement type) {
+        if (ElementUtils.isRecord(type))
+            return PackageModel.Category.RECORD;
+        if (ElementUtils.isEnum(type))
+            return PackageModel.Category.ENUM;
+        if (type.getKind().isInterface())
+            return PackageModel.Category.INTERFACE;
+        return PackageModel.Category.CLASS;
     }
 
-    private String buildRelatedSection(PackageElement pkg) {
-        List<PackageElement> children = typeUniverse.getChildPackages(pkg);
+    private PackageModel.PackageEntry extractParent(PackageElement pkg) {
         PackageElement parent = typeUniverse.getParentOf(pkg);
-        if (parent == null && children.isEmpty()) return "";
-        TableBuilder table = new HtmlTableBuilder().withHeaders("Package", "Description");
-        if (parent != null) {
-            String link = packageLinkBuilder.withDisplayMode(PackageLinkBuilder.DisplayMode.FULLY_QUALIFIED_NAME).buildHtml(pkg, parent);
-            String doc = ElementUtils.getDocComment(parent, docTrees);
-            String desc = (doc != null && !doc.isEmpty()) ? doc : "";
-            table.addRow(link, desc);
-        }
-        for (PackageElement child : children) {
-            String link = packageLinkBuilder.withDisplayMode(PackageLinkBuilder.DisplayMode.FULLY_QUALIFIED_NAME).buildHtml(pkg, child);
-            String doc = ElementUtils.getDocComment(child, docTrees);
-            String desc = (doc != null && !doc.isEmpty()) ? doc : "";
-            table.addRow(link, desc);
+        if (parent == null) return null;
+        return extractPackageEntry(pkg, parent);
+    }
+
+    private List<PackageModel.PackageEntry> extractChildren(PackageElement pkg) {
+        List<PackageModel.PackageEntry> children = new ArrayList<>();
+        for (PackageElement child : typeUniverse.getChildPackages(pkg)) {
+            children.add(extractPackageEntry(pkg, child));
         }
-        return table.build();
+        return children;
+    }
+
+    private PackageModel.PackageEntry extractPackageEntry(PackageElement from, PackageElement pkg) {
+        String link = packageLinkBuilder.withDisplayMode(PackageLinkBuilder.DisplayMode.FULLY_QUALIFIED_NAME).buildHtml(from, pkg);
+        String doc = ElementUtils.getDocComment(pkg, docTrees);
+        String desc = (doc != null && !doc.isEmpty()) ? doc : "";
+        return new PackageModel.PackageEntry(link, desc);
+    }
+
+    @Override
+    public PackageModel getModel() {
+        return model;
     }
 
-    public void build() throws IOException {
-        if (result == null)
+    @Override
+    public void build(final PageOutput output) throws IOException {
+        if (model == null)
             return;
-        Files.createDirectories(path.getParent());
-        Files.writeString(path, result);
+        output.write(path, writer -> ModelRenderer.render(model, writer));
     }
 }
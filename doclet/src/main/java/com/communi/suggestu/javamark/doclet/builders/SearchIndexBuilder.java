@@ -0,0 +1,347 @@
+package com.communi.suggestu.javamark.doclet.builders;
+
+import com.communi.suggestu.javamark.doclet.model.Fragment;
+import com.communi.suggestu.javamark.doclet.model.MarkdownPage;
+import com.communi.suggestu.javamark.doclet.utils.ElementUtils;
+import com.communi.suggestu.javamark.doclet.utils.HtmlIdUtils;
+import com.communi.suggestu.javamark.doclet.utils.JsonUtils;
+import com.communi.suggestu.javamark.doclet.utils.SearchIndexSharding;
+import com.communi.suggestu.javamark.doclet.utils.TypeUniverse;
+import com.sun.source.util.DocTrees;
+import jdk.javadoc.internal.doclets.formats.html.HtmlConfiguration;
+import jdk.javadoc.internal.doclets.toolkit.util.Utils;
+import jdk.javadoc.internal.doclets.toolkit.util.VisibleMemberTable;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.SimpleTypeVisitor14;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static jdk.javadoc.internal.doclets.toolkit.util.VisibleMemberTable.Kind.ANNOTATION_TYPE_MEMBER_OPTIONAL;
+import static jdk.javadoc.internal.doclets.toolkit.util.VisibleMemberTable.Kind.ANNOTATION_TYPE_MEMBER_REQUIRED;
+import static jdk.javadoc.internal.doclets.toolkit.util.VisibleMemberTable.Kind.CONSTRUCTORS;
+import static jdk.javadoc.internal.doclets.toolkit.util.VisibleMemberTable.Kind.ENUM_CONSTANTS;
+import static jdk.javadoc.internal.doclets.toolkit.util.VisibleMemberTable.Kind.FIELDS;
+import static jdk.javadoc.internal.doclets.toolkit.util.VisibleMemberTable.Kind.METHODS;
+
+/**
+ * Builds the search index of the documented packages, types and members, split into shards.
+ * <p>
+ * Every entry holds the name, kind, plain text signature and first sentence of an element, and the page and anchor
+ * it is documented at. The manifest {@value #MANIFEST_NAME} lists the key and file of every shard, so a search only
+ * loads the shard its query falls into instead of indexing all pages itself.
+ * <p>
+ * The entries are collected on the doclet thread, the populated pages only hold the finished JSON.
+ */
+public class SearchIndexBuilder
+{
+    public static final String DIRECTORY     = "search";
+    public static final String MANIFEST_NAME = "index.json";
+
+    /**
+     * The members which are documented on the page of a type, in the order they are indexed.
+     */
+    private static final List<VisibleMemberTable.Kind> MEMBER_KINDS = List.of(
+        ENUM_CONSTANTS, FIELDS, CONSTRUCTORS, METHODS, ANNOTATION_TYPE_MEMBER_REQUIRED, ANNOTATION_TYPE_MEMBER_OPTIONAL);
+
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator.comparing(Entry::name)
+        .thenComparing(Entry::qualifiedName)
+        .thenComparing(Entry::signature)
+        .thenComparing(Entry::kind);
+
+    private final HtmlConfiguration   configuration;
+    private final TypeUniverse        typeUniverse;
+    private final DocTrees            docTrees;
+    private final Path                rootPath;
+    private final SearchIndexSharding sharding;
+
+    private final Utils utils;
+
+    private final SortedMap<String, List<Entry>> shards = new TreeMap<>();
+
+    /**
+     * @param rootPath the output directory
+     * @param sharding how the entries are split into shards
+     */
+    public SearchIndexBuilder(
+        final HtmlConfiguration configuration,
+        final TypeUniverse typeUniverse,
+        final DocTrees docTrees,
+        final Path rootPath,
+        final SearchIndexSharding sharding)
+    {
+        this.configuration = configuration;
+        this.typeUniverse = typeUniverse;
+        this.docTrees = docTrees;
+        this.rootPath = rootPath;
+        this.sharding = sharding;
+        this.utils = configuration.utils;
+    }
+
+    /**
+     * Indexes the given packages and types, and populates the manifest and the shards.
+     *
+     * @param packagePages the page of every documented package, relative to the output root and without extension
+     * @param typePages    the page of every documented type, relative to the output root and without extension
+     * @return the populated manifest and shards
+     */
+    public List<FileBuilder> from(final Map<PackageElement, String> packagePages, final Map<TypeElement, String> typePages)
+    {
+        shards.clear();
+        packagePages.forEach((pkg, page) -> add(pkg, new Entry(
+            pkg.getQualifiedName().toString(),
+            "package",
+            pkg.getQualifiedName().toString(),
+            "package " + pkg.getQualifiedName(),
+            summary(pkg),
+            page,
+            null)));
+
+        typePages.forEach((type, page) -> {
+            add(ElementUtils.getEnclosingPackage(type), new Entry(
+                type.getSimpleName().toString(),
+                kind(type),
+                type.getQualifiedName().toString(),
+                typeSignature(type),
+                summary(type),
+                page,
+                null));
+            addMembers(type, page);
+        });
+
+        var pages = new ArrayList<FileBuilder>();
+        var manifest = new StringBuilder("{\n  \"sharding\": ")
+            .append(JsonUtils.quote(sharding.name().toLowerCase(Locale.ROOT)))
+            .append(",\n  \"shards\": [");
+        var first = true;
+        for (final Map.Entry<String, List<Entry>> shard : shards.entrySet())
+        {
+            var file = shard.getKey() + ".json";
+            shard.getValue().sort(ENTRY_ORDER);
+            manifest.append(first ? "\n" : ",\n")
+                .append("    {\"key\": ").append(JsonUtils.quote(shard.getKey()))
+                .append(", \"file\": ").append(JsonUtils.quote(file))
+                .append(", \"entries\": ").append(shard.getValue().size())
+                .append('}');
+            pages.add(page(file, formatShard(shard.getValue())));
+            first = false;
+        }
+        manifest.append("\n  ]\n}\n");
+        pages.addFirst(page(MANIFEST_NAME, manifest.toString()));
+        return pages;
+    }
+
+    private void addMembers(final TypeElement type, final String page)
+    {
+        var visibleMemberTable = configuration.getVisibleMemberTable(type);
+        for (final VisibleMemberTable.Kind kind : MEMBER_KINDS)
+        {
+            for (final Element member : visibleMemberTable.getVisibleMembers(kind))
+            {
+                var name = typeUniverse.getSimpleName(member);
+                add(ElementUtils.getEnclosingPackage(type), new Entry(
+                    name,
+                    kind(member),
+                    type.getQualifiedName() + "." + name,
+                    memberSignature(member, name),
+                    summary(member),
+                    page,
+                    HtmlIdUtils.forDocumentedMember(utils, type, member).name()));
+            }
+        }
+    }
+
+    private void add(final PackageElement pkg, final Entry entry)
+    {
+        var key = switch (sharding)
+        {
+            case PACKAGE -> pkg == null || pkg.isUnnamed() ? "default" : pkg.getQualifiedName().toString();
+            case PREFIX -> prefix(entry.name());
+        };
+        shards.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+    }
+
+    /**
+     * {@return the lower case first character of the name, or an underscore if it is not a letter or digit}
+     * The key is used as file name, so characters which are not ASCII share a shard as well.
+     */
+    private static String prefix(final String name)
+    {
+        var first = name.isEmpty() ? '_' : Character.toLowerCase(name.charAt(0));
+        return (first >= 'a' && first <= 'z') || (first >= '0' && first <= '9') ? String.valueOf(first) : "_";
+    }
+
+    private String summary(final Element element)
+    {
+        return ElementUtils.getDocComment(element, docTrees).replaceAll("\\s+", " ").strip();
+    }
+
+    private static String kind(final Element element)
+    {
+        return switch (element.getKind())
+        {
+            case ANNOTATION_TYPE -> "annotation";
+            case ENUM_CONSTANT -> "enum-constant";
+            case METHOD -> element.getEnclosingElement().getKind() == ElementKind.ANNOTATION_TYPE ? "annotation-element" : "method";
+            default -> element.getKind().name().toLowerCase(Locale.ROOT);
+        };
+    }
+
+    private String typeSignature(final TypeElement type)
+    {
+        var signature = new StringBuilder(kind(type)).append(' ').append(typeUniverse.getSimpleName(type));
+        appendTypeParameters(signature, type.getTypeParameters());
+        return signature.toString();
+    }
+
+    private String memberSignature(final Element member, final String name)
+    {
+        if (member instanceof VariableElement variable)
+        {
+            return variable.getKind() == ElementKind.ENUM_CONSTANT ? name : typeName(variable.asType()) + " " + name;
+        }
+
+        var executable = (ExecutableElement) member;
+        var signature = new StringBuilder();
+        if (!executable.getTypeParameters().isEmpty())
+        {
+            appendTypeParameters(signature, executable.getTypeParameters());
+            signature.append(' ');
+        }
+        if (executable.getKind() != ElementKind.CONSTRUCTOR)
+        {
+            signature.append(typeName(executable.getReturnType())).append(' ');
+        }
+        signature.append(name).append('(');
+        var parameters = executable.getParameters();
+        for (int i = 0; i < parameters.size(); i++)
+        {
+            var parameterType = typeName(parameters.get(i).asType());
+            if (executable.isVarArgs() && i == parameters.size() - 1 && parameterType.endsWith("[]"))
+            {
+                parameterType = parameterType.substring(0, parameterType.length() - 2) + "...";
+            }
+            signature.append(i == 0 ? "" : ", ").append(parameterType);
+        }
+        return signature.append(')').toString();
+    }
+
+    private void appendTypeParameters(final StringBuilder signature, final List<? extends TypeParameterElement> typeParameters)
+    {
+        if (typeParameters.isEmpty())
+        {
+            return;
+        }
+
+        signature.append(typeParameters.stream()
+            .map(typeParameter -> typeParameter.getSimpleName().toString())
+            .collect(Collectors.joining(", ", "<", ">")));
+    }
+
+    /**
+     * {@return the plain text name of the type, with the simple names of all types it refers to}
+     */
+    private String typeName(final TypeMirror type)
+    {
+        return new SimpleTypeVisitor14<String, Void>()
+        {
+            @Override
+            public String visitArray(final ArrayType t, final Void p)
+            {
+                return visit(t.getComponentType()) + "[]";
+            }
+
+            @Override
+            public String visitDeclared(final DeclaredType t, final Void p)
+            {
+                var name = typeUniverse.getSimpleName(t.asElement());
+                if (t.getTypeArguments().isEmpty())
+                {
+                    return name;
+                }
+                return name + t.getTypeArguments().stream().map(this::visit).collect(Collectors.joining(", ", "<", ">"));
+            }
+
+            @Override
+            public String visitTypeVariable(final TypeVariable t, final Void p)
+            {
+                return t.asElement().getSimpleName().toString();
+            }
+
+            @Override
+            public String visitWildcard(final WildcardType t, final Void p)
+            {
+                if (t.getExtendsBound() != null)
+                {
+                    return "? extends " + visit(t.getExtendsBound());
+                }
+                if (t.getSuperBound() != null)
+                {
+                    return "? super " + visit(t.getSuperBound());
+                }
+                return "?";
+            }
+
+            @Override
+            protected String defaultAction(final TypeMirror t, final Void p)
+            {
+                return t.toString();
+            }
+        }.visit(type);
+    }
+
+    private static String formatShard(final List<Entry> entries)
+    {
+        var json = new StringBuilder("[");
+        for (int i = 0; i < entries.size(); i++)
+        {
+            var entry = entries.get(i);
+            json.append(i == 0 ? "\n" : ",\n")
+                .append("  {\"name\": ").append(JsonUtils.quote(entry.name()))
+                .append(", \"kind\": ").append(JsonUtils.quote(entry.kind()))
+                .append(", \"qualifiedName\": ").append(JsonUtils.quote(entry.qualifiedName()))
+                .append(", \"signature\": ").append(JsonUtils.quote(entry.signature()))
+                .append(", \"summary\": ").append(JsonUtils.quote(entry.summary()))
+                .append(", \"page\": ").append(JsonUtils.quote(entry.page()));
+            if (entry.anchor() != null)
+            {
+                json.append(", \"anchor\": ").append(JsonUtils.quote(entry.anchor()));
+            }
+            json.append('}');
+        }
+        return json.append("\n]\n").toString();
+    }
+
+    private FileBuilder page(final String file, final String json)
+    {
+        return new ModelFileBuilder(rootPath, new MarkdownPage(DIRECTORY + "/" + file, Fragment.text(json)));
+    }
+
+    /**
+     * A single searchable element.
+     *
+     * @param page   the page of the element, relative to the output root and without extension
+     * @param anchor the id of the section of a member on the page of its type, null for packages and types
+     */
+    private record Entry(String name, String kind, String qualifiedName, String signature, String summary, String page, String anchor)
+    {
+    }
+}
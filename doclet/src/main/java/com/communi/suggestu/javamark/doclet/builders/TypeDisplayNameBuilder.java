@@ -6,13 +6,18 @@ import com.communi.suggestu.javamark.doclet.utils.TypeUniverse;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.type.ArrayType;
 import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.type.TypeVariable;
 import javax.lang.model.type.WildcardType;
 import javax.lang.model.util.SimpleTypeVisitor14;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 public class TypeDisplayNameBuilder
 {
@@ -28,17 +33,37 @@ public class TypeDisplayNameBuilder
     private final TypeUniverse     typeUniverse;
     private       DisplayMode      displayMode = DisplayMode.JAVADOC;
 
+    /**
+     * The javadoc names which were already built, shared by this builder and all builders derived from it.
+     * The names do not depend on the page they are used on, so a run renders every type once per display mode.
+     */
+    private final Map<NameKey, String> displayNames;
+
+    /**
+     * The type annotations which were already rendered, shared in the same way as the names.
+     */
+    private final Map<AnnotationBuilder.RenderingKey, AnnotationBuilder.Rendering> annotationRenderings;
+
     public TypeDisplayNameBuilder(TypeUniverse typeUniverse, TypeLinkProvider linkProvider)
     {
         this.linkProvider = linkProvider;
         this.typeUniverse = typeUniverse;
+        this.displayNames = new HashMap<>();
+        this.annotationRenderings = new HashMap<>();
     }
 
-    private TypeDisplayNameBuilder(final TypeUniverse typeUniverse, final TypeLinkProvider linkProvider, final DisplayMode displayMode)
+    private TypeDisplayNameBuilder(
+        final TypeUniverse typeUniverse,
+        final TypeLinkProvider linkProvider,
+        final DisplayMode displayMode,
+        final Map<NameKey, String> displayNames,
+        final Map<AnnotationBuilder.RenderingKey, AnnotationBuilder.Rendering> annotationRenderings)
     {
         this.linkProvider = linkProvider;
         this.typeUniverse = typeUniverse;
         this.displayMode = displayMode;
+        this.displayNames = displayNames;
+        this.annotationRenderings = annotationRenderings;
     }
 
     /**
@@ -53,7 +78,9 @@ public class TypeDisplayNameBuilder
 
         return new TypeDisplayNameBuilder(
             typeUniverse, linkProvider,
-            mode
+            mode,
+            displayNames,
+            annotationRenderings
         );
     }
 
@@ -71,12 +98,76 @@ public class TypeDisplayNameBuilder
         return switch (displayMode)
         {
             case FULLY_QUALIFIED_NAME -> typeUniverse.asTypeElement(target).getQualifiedName().toString();
-            case FULLY_QUALIDIED_JAVADOC_NAME -> createFullyQualifiedJavadocName(target);
-            case JAVADOC -> createJavadocLinkText(target);
+            case FULLY_QUALIDIED_JAVADOC_NAME -> cached(target, this::createFullyQualifiedJavadocName);
+            case JAVADOC -> cached(target, this::createJavadocLinkText);
             case SIMPLE_NAME -> typeUniverse.asTypeElement(target).getSimpleName().toString();
         };
     }
 
+    /**
+     * Returns the name of the target in the current display mode, and only builds it if it was not built before.
+     * The cache is not filled through computeIfAbsent, as building a name recursively builds the names of its parts.
+     */
+    private String cached(TypeMirror target, Function<TypeMirror, String> nameBuilder)
+    {
+        var key = new NameKey(canonicalForm(target), displayMode);
+        var name = displayNames.get(key);
+        if (name == null)
+        {
+            name = nameBuilder.apply(target);
+            displayNames.put(key, name);
+        }
+        return name;
+    }
+
+    /**
+     * Returns the key under which the name of the given type is cached.
+     * The name only depends on the structure of the type, so separate mirrors of the same type, like the
+     * {@code List<Map<String, Foo>>} of many signatures, share an entry: declared types are keyed by their element,
+     * enclosing type and type arguments, arrays by their component, and wildcards by their bounds.
+     * Annotated types, type variables and all other mirrors are cached by themselves, as type variables with the same
+     * name can have different bounds.
+     */
+    private static Object canonicalForm(TypeMirror type)
+    {
+        if (type == null)
+        {
+            return null;
+        }
+
+        if (!type.getAnnotationMirrors().isEmpty())
+        {
+            return type;
+        }
+
+        if (type.getKind().isPrimitive())
+        {
+            return type.getKind();
+        }
+
+        if (type.getKind() == TypeKind.DECLARED && type instanceof DeclaredType declaredType)
+        {
+            var enclosingType = declaredType.getEnclosingType();
+            return new DeclaredKey(
+                declaredType.asElement(),
+                enclosingType.getKind() == TypeKind.NONE ? null : canonicalForm(enclosingType),
+                declaredType.getTypeArguments().stream().map(TypeDisplayNameBuilder::canonicalForm).toList()
+            );
+        }
+
+        if (type instanceof ArrayType arrayType)
+        {
+            return new ArrayKey(canonicalForm(arrayType.getComponentType()));
+        }
+
+        if (type instanceof WildcardType wildcardType)
+        {
+            return new WildcardKey(canonicalForm(wildcardType.getExtendsBound()), canonicalForm(wildcardType.getSuperBound()));
+        }
+
+        return type;
+    }
+
     private String createFullyQualifiedJavadocName(TypeMirror target) {
         var pkg = typeUniverse.getPackageOf(target);
         var resultBuilder = new StringBuilder();
@@ -206,7 +297,8 @@ public class TypeDisplayNameBuilder
 
         return new AnnotationBuilder(
             typeUniverse,
-            linkProvider
+            linkProvider,
+            annotationRenderings
         ).from(annotations)
             .build();
     }
@@ -239,7 +331,7 @@ public class TypeDisplayNameBuilder
                 if (many) {
                     links.append(",");
                 }
-                links.append(new TypeDisplayNameBuilder(typeUniverse, linkProvider, DisplayMode.JAVADOC).build(t));
+                links.append(withDisplayMode(DisplayMode.JAVADOC).build(t));
                 many = true;
             }
             links.append("\\>");
@@ -255,4 +347,31 @@ public class TypeDisplayNameBuilder
     {
         return build(targetType.asType());
     }
+
+    /**
+     * The key of a cached name: the canonical form of the type, and the display mode it was built in.
+     */
+    private record NameKey(Object type, DisplayMode displayMode)
+    {
+    }
+
+    private record DeclaredKey(Element element, Object enclosingType, List<Object> typeArguments)
+    {
+    }
+
+    private record ArrayKey(Object componentType)
+    {
+    }
+
+    private record WildcardKey(Object extendsBound, Object superBound)
+    {
+    }
+
+    /**
+     * {@return the amount of names which were built so far, by this builder and all builders derived from it}
+     */
+    int getBuiltNameCount()
+    {
+        return displayNames.size();
+    }
 }
@@ -2,17 +2,21 @@ package com.communi.suggestu.javamark.doclet.builders;
 
 import com.communi.suggestu.javamark.doclet.content.MarkdownAwareContentBuilder;
 import com.communi.suggestu.javamark.doclet.content.NoneEncodingContentBuilder;
+import com.communi.suggestu.javamark.doclet.content.NoneEncodingTextBuilder;
+import com.communi.suggestu.javamark.doclet.model.Fragment;
+import com.communi.suggestu.javamark.doclet.model.TypeModel;
+import com.communi.suggestu.javamark.doclet.rendering.ModelRenderer;
+import com.communi.suggestu.javamark.doclet.rendering.PageOutput;
 import com.communi.suggestu.javamark.doclet.utils.Constants;
 import com.communi.suggestu.javamark.doclet.utils.DocTreeUtils;
 import com.communi.suggestu.javamark.doclet.utils.ElementUtils;
+import com.communi.suggestu.javamark.doclet.utils.HtmlIdUtils;
 import com.communi.suggestu.javamark.doclet.utils.SignatureUtils;
 import com.communi.suggestu.javamark.doclet.utils.TypeUniverse;
 import com.communi.suggestu.javamark.doclet.writers.MarkdownAnnotationTypeMemberWriterImpl;
-import com.communi.suggestu.javamark.doclet.writers.MarkdownClassWriterImpl;
 import com.communi.suggestu.javamark.doclet.writers.MarkdownConstructorWriterImpl;
 import com.communi.suggestu.javamark.doclet.writers.MarkdownEnumConstantsWriterImpl;
 import com.communi.suggestu.javamark.doclet.writers.MarkdownFieldWriterImpl;
-import com.communi.suggestu.javamark.doclet.writers.MarkdownHtmlDocletWriter;
 import com.communi.suggestu.javamark.doclet.writers.MarkdownMethodWriterImpl;
 import com.communi.suggestu.javamark.doclet.writers.MarkdownPropertyWriterImpl;
 import com.communi.suggestu.javamark.doclet.writers.MarkdownSubWriterHolderWriter;
@@ -38,17 +42,16 @@ import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Types;
+import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.SortedSet;
 import java.util.TreeSet;
-import java.util.stream.Collectors;
 
-public class TypeFileBuilder
+public class TypeFileBuilder implements FileBuilder
 {
     private final HtmlConfiguration      configuration;
     private final TypeUniverse           typeUniverse;
@@ -63,7 +66,8 @@ public class TypeFileBuilder
     private final Utils       utils;
     private final HtmlOptions options;
 
-    private String result = null;
+    private TypeModel       model   = null;
+    private TypePageContext context = null;
 
     public TypeFileBuilder(
         final HtmlConfiguration configuration, final TypeUniverse typeUniverse,
@@ -93,18 +97,11 @@ public class TypeFileBuilder
 
     public TypeFileBuilder from(TypeElement element) throws DocletException
     {
-        String builder =
-            "--- \n" +
-                "title: " + element.getSimpleName() + "\n" +
-                "aside: false \n" +
-                "sidebar: false \n" +
-                "---\n";
-
+        String packageLink = null;
         final PackageElement packageElement = ElementUtils.getEnclosingPackage(element);
         if (packageElement != null)
         {
-            String packageLink = packageLinkBuilder.withDisplayMode(PackageLinkBuilder.DisplayMode.FULLY_QUALIFIED_NAME).build(packageElement, packageElement);
-            builder += "_Package:_ " + packageLink + Constants.MARKDOWN_NEW_LINE;
+            packageLink = packageLinkBuilder.withDisplayMode(PackageLinkBuilder.DisplayMode.FULLY_QUALIFIED_NAME).build(packageElement, packageElement);
         }
 
         String key = switch (element.getKind()) {
@@ -117,130 +114,93 @@ public class TypeFileBuilder
         };
 
         var kindTitle = configuration.docResources.getText(key);
+        var displayName = displayNameBuilder.withDisplayMode(TypeDisplayNameBuilder.DisplayMode.JAVADOC).build(element);
 
-        builder += "# " + StringUtils.capitalize(kindTitle) + " " +
-            displayNameBuilder.withDisplayMode(TypeDisplayNameBuilder.DisplayMode.JAVADOC).build(element) +
-            Constants.MARKDOWN_NEW_LINE;
-
-        if (element.getKind() == ElementKind.CLASS)
-        {
-            builder += extractSuperTypeHierarchy(element) + Constants.MARKDOWN_NEW_LINE;
-        }
+        var superTypeHierarchy = element.getKind() == ElementKind.CLASS
+            ? extractSuperTypeHierarchy(element)
+            : List.<String>of();
 
         var typeParameters = listTypeParameters(element);
-        var superInterfaces = listSuperInterfaces(element);
-        var implementingInterfaces = listImplementedInterfaces(element);
-        var directSubtypes = listDirectKnownSubTypes(element);
-        var directSubInterfaces = listDirectKnownSubInterfaces(element);
-        var interfaceUsage = listDirectKnownImplementers(element);
-        var enclosingClass = listEnclosingClass(element);
-        var functionalInterfaces = listFunctionalInterfaceInformation(element);
-
-        if (!typeParameters.isBlank())
-        {
-            builder += typeParameters + "\n";
-        }
-
-        if (!superInterfaces.isBlank())
-        {
-            builder += superInterfaces + Constants.MARKDOWN_NEW_LINE + "\n";
-        }
-
-        if (!implementingInterfaces.isBlank())
-        {
-            builder += implementingInterfaces + Constants.MARKDOWN_NEW_LINE + "\n";
-        }
-
-        if (!directSubtypes.isBlank())
-        {
-            builder += directSubtypes + Constants.MARKDOWN_NEW_LINE + "\n";
-        }
-
-        if (!directSubInterfaces.isBlank())
-        {
-            builder += directSubInterfaces + Constants.MARKDOWN_NEW_LINE + "\n";
-        }
 
-        if (!interfaceUsage.isBlank())
+        var relations = new ArrayList<TypeModel.Relation>();
+        addRelation(relations, listSuperInterfaces(element));
+        addRelation(relations, listImplementedInterfaces(element));
+        addRelation(relations, listDirectKnownSubTypes(element));
+        addRelation(relations, listAllKnownSubInterfaces(element));
+        addRelation(relations, listAllKnownImplementingClasses(element));
+        addRelation(relations, listEnclosingClass(element));
+        addRelation(relations, listFunctionalInterfaceInformation(element));
+        if (options.classUse())
         {
-            builder += interfaceUsage + Constants.MARKDOWN_NEW_LINE + "\n";
+            for (final TypeUniverse.UseKind useKind : TypeUniverse.UseKind.values())
+            {
+                addRelation(relations, listUses(element, useKind));
+            }
         }
 
-        if (!enclosingClass.isBlank())
-        {
-            builder += enclosingClass + Constants.MARKDOWN_NEW_LINE + "\n";
-        }
+        model = new TypeModel(
+            path.toString().replace(File.separatorChar, '/'),
+            element.getSimpleName().toString(),
+            packageLink,
+            StringUtils.capitalize(kindTitle),
+            displayName,
+            superTypeHierarchy,
+            typeParameters,
+            relations,
+            Fragment.text(listClassSignature(element)),
+            Fragment.text(listDeprecationInformation(element)),
+            Fragment.of(listClassDescription(element)),
+            Fragment.text(listClassTags(element)),
+            Fragment.of(listMemberSummary(element)),
+            List.of(
+                Fragment.of(listEnumConstantsDetails(element)),
+                Fragment.of(listPropertyDetails(element)),
+                Fragment.of(listFieldDetails(element)),
+                Fragment.of(listConstructorDetails(element)),
+                Fragment.of(listAnnotationMemberDetails(element)),
+                Fragment.of(listMethodMemberDetails(element))
+            )
+        );
+        return this;
+    }
 
-        if (!functionalInterfaces.isBlank())
+    private static void addRelation(final List<TypeModel.Relation> relations, final TypeModel.Relation relation)
+    {
+        if (relation != null)
         {
-            builder += functionalInterfaces + Constants.MARKDOWN_NEW_LINE + "\n";
+            relations.add(relation);
         }
-
-        builder += "---\n";
-
-        var classSignature = listClassSignature(element);
-        var deprecationNotice = listDeprecationInformation(element);
-        var classDescription = listClassDescription(element);
-        var classTags = listClassTags(element);
-        var memberSummary = listMemberSummary(element);
-
-        builder += classSignature + Constants.MARKDOWN_NEW_LINE + "\n";
-        builder += deprecationNotice + Constants.MARKDOWN_NEW_LINE + "\n";
-        builder += classDescription + Constants.MARKDOWN_NEW_LINE + "\n";
-        builder += classTags + Constants.MARKDOWN_NEW_LINE + "\n";
-        builder += memberSummary + Constants.MARKDOWN_NEW_LINE + "\n";
-
-        var enumMemberDetails = listEnumConstantsDetails(element);
-        var propertyMemberDetails = listPropertyDetails(element);
-        var fieldMemberDetails = listFieldDetails(element);
-        var constructorMemberDetails = listConstructorDetails(element);
-        var annotationTypeMemberDetails = listAnnotationMemberDetails(element);
-        var methodDetails = listMethodMemberDetails(element);
-
-        builder += enumMemberDetails + Constants.MARKDOWN_NEW_LINE + "\n";
-        builder += propertyMemberDetails + Constants.MARKDOWN_NEW_LINE + "\n";
-        builder += fieldMemberDetails + Constants.MARKDOWN_NEW_LINE + "\n";
-        builder += constructorMemberDetails + Constants.MARKDOWN_NEW_LINE + "\n";
-        builder += annotationTypeMemberDetails + Constants.MARKDOWN_NEW_LINE + "\n";
-        builder += methodDetails + Constants.MARKDOWN_NEW_LINE + "\n";
-
-        result = builder;
-        return this;
     }
 
-    private String extractSuperTypeHierarchy(TypeElement element)
+    /**
+     * {@return the links to the super classes of the given class, from the root down to the class itself}
+     */
+    private List<String> extractSuperTypeHierarchy(TypeElement element)
     {
-        var superTypes = typeUniverse.getSuperTypeHierarchy(element.asType());
-        StringBuilder superTypeHierarchyString = new StringBuilder();
-        for (int superTypeIndex = 0; superTypeIndex < superTypes.size(); superTypeIndex++)
+        var superTypes = typeUniverse.getSuperTypeHierarchy(element);
+        var links = new ArrayList<String>(superTypes.size() + 1);
+        for (final TypeMirror superType : superTypes)
         {
-            String link = linkBuilder.withDisplayMode(TypeDisplayNameBuilder.DisplayMode.FULLY_QUALIDIED_JAVADOC_NAME).build(element, superTypes.get(superTypeIndex));
-            superTypeHierarchyString
-                .append(String.join("", Collections.nCopies(superTypeIndex, "&ensp;")))
-                .append(superTypeIndex == 0 ? "" : "↳")
-                .append(link).append(Constants.MARKDOWN_NEW_LINE);
+            links.add(linkBuilder.withDisplayMode(TypeDisplayNameBuilder.DisplayMode.FULLY_QUALIDIED_JAVADOC_NAME).build(element, superType));
         }
-        // Add the current element itself as the last in the hierarchy
-        String selfLink = linkBuilder.withDisplayMode(TypeDisplayNameBuilder.DisplayMode.FULLY_QUALIDIED_JAVADOC_NAME).build(element, element.asType());
-        superTypeHierarchyString
-            .append(String.join("", Collections.nCopies(superTypes.size(), "&ensp;")))
-            .append("↳")
-            .append(selfLink).append(Constants.MARKDOWN_NEW_LINE);
-        return superTypeHierarchyString.toString();
+        links.add(linkBuilder.withDisplayMode(TypeDisplayNameBuilder.DisplayMode.FULLY_QUALIDIED_JAVADOC_NAME).build(element, element.asType()));
+        return links;
     }
 
-    private String listTypeParameters(TypeElement element)
+    /**
+     * {@return the documented type parameters of the given type, or null if it documents none}
+     */
+    private List<TypeModel.TypeParameter> listTypeParameters(TypeElement element)
     {
 
         var paramTrees = typeUniverse.getTypeParamTrees(element);
         if (paramTrees.isEmpty())
         {
-            return "";
+            return null;
         }
 
-        var result = new StringBuilder();
+        var result = new ArrayList<TypeModel.TypeParameter>();
         var indexMap = typeUniverse.mapNameToPosition(element.getTypeParameters());
-        result.append("**Type Parameters:**").append(Constants.MARKDOWN_NEW_LINE);
         paramTrees.forEach(tree -> {
             var name = tree.getName().getName().toString();
             if (!indexMap.containsKey(name))
@@ -248,21 +208,21 @@ public class TypeFileBuilder
                 return;
             }
 
-            var htmlWriter = new MarkdownHtmlDocletWriter(configuration, DocPath.create(path.toString()));
+            var htmlWriter = contextFor(element).getHtmlWriter();
             var description = DocTreeUtils.getTags(tree, configuration);
-            result.append(name).append(" - ").append(
-                htmlWriter.commentTagsToContent(element, description, false, false)
-            ).append(Constants.MARKDOWN_NEW_LINE);
+            result.add(new TypeModel.TypeParameter(
+                name,
+                htmlWriter.commentTagsToContent(element, description, false, false).toString()));
         });
 
-        return result.toString();
+        return result;
     }
 
-    private String listSuperInterfaces(TypeElement element)
+    private TypeModel.Relation listSuperInterfaces(TypeElement element)
     {
         if (!configuration.utils.isInterface(element))
         {
-            return "";
+            return null;
         }
 
         SortedSet<TypeMirror> interfaces = new TreeSet<>(configuration.utils.comparators.typeMirrorClassUseComparator());
@@ -270,20 +230,20 @@ public class TypeFileBuilder
 
         if (interfaces.isEmpty())
         {
-            return "";
+            return null;
         }
 
-        return "**All Extended Interfaces:**" + Constants.MARKDOWN_NEW_LINE +
+        return new TypeModel.Relation("All Extended Interfaces",
             interfaces.stream()
                 .map(i -> linkBuilder.withDisplayMode(TypeDisplayNameBuilder.DisplayMode.JAVADOC).build(element, i))
-                .collect(Collectors.joining(", "));
+                .toList());
     }
 
-    private String listImplementedInterfaces(TypeElement element)
+    private TypeModel.Relation listImplementedInterfaces(TypeElement element)
     {
         if (!typeUniverse.isClass(element))
         {
-            return "";
+            return null;
         }
 
         var interfaces = typeUtils.directSupertypes(element.asType())
@@ -293,99 +253,141 @@ public class TypeFileBuilder
 
         if (interfaces.isEmpty())
         {
-            return "";
+            return null;
         }
 
-        return "**All Implemented Interfaces:**" + Constants.MARKDOWN_NEW_LINE +
+        return new TypeModel.Relation("All Implemented Interfaces",
             interfaces.stream()
                 .map(i -> linkBuilder.withDisplayMode(TypeDisplayNameBuilder.DisplayMode.JAVADOC).build(element, i))
-                .collect(Collectors.joining(", "));
+                .toList());
     }
 
-    private String listDirectKnownSubTypes(TypeElement element)
+    private TypeModel.Relation listDirectKnownSubTypes(TypeElement element)
     {
         if (!configuration.utils.isClass(element))
         {
-            return "";
+            return null;
         }
 
         var directSubTypes = typeUniverse.getDirectSubTypes(element);
         if (directSubTypes == null || directSubTypes.isEmpty())
         {
-            return "";
+            return null;
         }
 
-        return "**Direct Known Subclasses:**" + Constants.MARKDOWN_NEW_LINE +
+        return new TypeModel.Relation("Direct Known Subclasses",
             directSubTypes.stream()
                 .map(s -> linkBuilder.withDisplayMode(TypeDisplayNameBuilder.DisplayMode.JAVADOC).build(element, s))
-                .collect(Collectors.joining(", "));
+                .toList());
     }
 
-    private String listDirectKnownSubInterfaces(TypeElement element)
+    private TypeModel.Relation listAllKnownSubInterfaces(TypeElement element)
     {
         if (!configuration.utils.isInterface(element))
         {
-            return "";
+            return null;
         }
 
-        var directSubTypes = typeUniverse.getDirectSubTypes(element);
-        if (directSubTypes == null || directSubTypes.isEmpty())
+        var subInterfaces = typeUniverse.getAllSubTypes(element).stream()
+            .filter(typeElement -> configuration.utils.isInterface(typeElement))
+            .toList();
+        if (subInterfaces.isEmpty())
         {
-            return "";
+            return null;
         }
 
-        return "**Direct Known Subinterfaces:**" + Constants.MARKDOWN_NEW_LINE +
-            directSubTypes.stream()
-                .filter(typeElement -> configuration.utils.isInterface(typeElement))
+        return new TypeModel.Relation("All Known Subinterfaces",
+            subInterfaces.stream()
                 .map(s -> linkBuilder.withDisplayMode(TypeDisplayNameBuilder.DisplayMode.JAVADOC).build(element, s))
-                .collect(Collectors.joining(", "));
+                .toList());
     }
 
-    private String listDirectKnownImplementers(TypeElement element)
+    private TypeModel.Relation listAllKnownImplementingClasses(TypeElement element)
     {
         if (!configuration.utils.isInterface(element))
         {
-            return "";
+            return null;
         }
 
-        var directSubTypes = typeUniverse.getDirectSubTypes(element);
-        if (directSubTypes == null || directSubTypes.isEmpty())
+        var implementers = typeUniverse.getAllSubTypes(element).stream()
+            .filter(typeElement -> configuration.utils.isClass(typeElement))
+            .toList();
+        if (implementers.isEmpty())
         {
-            return "";
+            return null;
         }
 
-        return "**Direct Known Subinterfaces:**" + Constants.MARKDOWN_NEW_LINE +
-            directSubTypes.stream()
-                .filter(typeElement -> configuration.utils.isClass(typeElement))
+        return new TypeModel.Relation("All Known Implementing Classes",
+            implementers.stream()
                 .map(s -> linkBuilder.withDisplayMode(TypeDisplayNameBuilder.DisplayMode.JAVADOC).build(element, s))
-                .collect(Collectors.joining(", "));
+                .toList());
+    }
+
+    /**
+     * {@return the elements which refer to the given type in the given way, or null if there are none}
+     * Only listed when the {@code -use} option of the standard doclet is given.
+     */
+    private TypeModel.Relation listUses(TypeElement element, TypeUniverse.UseKind useKind)
+    {
+        var users = typeUniverse.getUses(element, useKind);
+        if (users.isEmpty())
+        {
+            return null;
+        }
+
+        var label = switch (useKind)
+        {
+            case SUPERTYPE -> "Used as Supertype by";
+            case FIELD -> "Used by Fields";
+            case PARAMETER -> "Used by Parameters of";
+            case RETURN_TYPE -> "Returned by";
+            case THROWS -> "Thrown by";
+            case ANNOTATION -> "Annotates";
+        };
+
+        return new TypeModel.Relation(label,
+            users.stream()
+                .map(user -> {
+                    if (user instanceof TypeElement userType)
+                    {
+                        return linkBuilder.withDisplayMode(TypeDisplayNameBuilder.DisplayMode.JAVADOC).build(element, userType);
+                    }
+
+                    var userType = (TypeElement) user.getEnclosingElement();
+                    return linkBuilder.build(
+                        element,
+                        userType,
+                        typeUniverse.getSimpleName(userType) + "." + typeUniverse.getSimpleName(user),
+                        HtmlIdUtils.forDocumentedMember(utils, userType, user).name());
+                })
+                .toList());
     }
 
-    private String listEnclosingClass(TypeElement element)
+    private TypeModel.Relation listEnclosingClass(TypeElement element)
     {
         if (!(element.getEnclosingElement() instanceof TypeElement enclosingType))
         {
-            return "";
+            return null;
         }
 
-        return "**Enclosing Class:**" + Constants.MARKDOWN_NEW_LINE +
-            linkBuilder.withDisplayMode(TypeDisplayNameBuilder.DisplayMode.JAVADOC).build(element, enclosingType);
+        return new TypeModel.Relation("Enclosing Class",
+            List.of(linkBuilder.withDisplayMode(TypeDisplayNameBuilder.DisplayMode.JAVADOC).build(element, enclosingType)));
     }
 
-    private String listFunctionalInterfaceInformation(TypeElement element)
+    private TypeModel.Relation listFunctionalInterfaceInformation(TypeElement element)
     {
         if (!isFunctionalInterface(element))
         {
-            return "";
+            return null;
         }
 
-        return "**Functional Interface:**" + Constants.MARKDOWN_NEW_LINE +
-            "This is a functional interface and can therefore be used as the assignment target for a lambda expression or method reference.";
+        return new TypeModel.Relation("Functional Interface",
+            List.of("This is a functional interface and can therefore be used as the assignment target for a lambda expression or method reference."));
     }
 
     private String listClassSignature(TypeElement element)
     {
-        var htmlWriter = new MarkdownHtmlDocletWriter(configuration, DocPath.create(path.toString()));
+        var htmlWriter = contextFor(element).getHtmlWriter();
         var content = SignatureUtils.createTypeSignatureAndToContent(element, htmlWriter);
         var builder = new MarkdownAwareContentBuilder();
         builder.add(content);
@@ -422,7 +424,7 @@ public class TypeFileBuilder
             List<? extends DocTree> commentTags = ch.getBody(dt);
             if (!commentTags.isEmpty())
             {
-                var htmlWriter = new MarkdownHtmlDocletWriter(configuration, DocPath.create(path.toString()));
+                var htmlWriter = contextFor(typeElement).getHtmlWriter();
                 var target = new MarkdownAwareContentBuilder();
                 htmlWriter.addInlineDeprecatedComment(
                     typeElement,
@@ -447,7 +449,7 @@ public class TypeFileBuilder
             : "**Deprecated.**";
     }
 
-    private String listClassDescription(TypeElement typeElement)
+    private Content listClassDescription(TypeElement typeElement)
     {
         if (!options.noComment())
         {
@@ -455,27 +457,19 @@ public class TypeFileBuilder
             // generate documentation for the class.
             if (!tags.isEmpty())
             {
-                var htmlWriter = new MarkdownHtmlDocletWriter(configuration, DocPath.create(path.toString()));
-                var content = htmlWriter.commentTagsToContent(typeElement, tags, false, true);
-                return content.toString();
+                var htmlWriter = contextFor(typeElement).getHtmlWriter();
+                return htmlWriter.commentTagsToContent(typeElement, tags, false, true);
             }
         }
 
-        return "";
+        return new NoneEncodingTextBuilder();
     }
 
     private String listClassTags(TypeElement typeElement)
     {
         if (!options.noComment())
         {
-            var htmlWriter = new MarkdownHtmlDocletWriter(configuration, DocPath.create(path.toString()))
-            {
-                @Override
-                public void addTagsInfo(final Element e, final Content content)
-                {
-                    super.addTagsInfo(e, content);
-                }
-            };
+            var htmlWriter = contextFor(typeElement).getHtmlWriter();
             var target = new MarkdownAwareContentBuilder();
             htmlWriter.addTagsInfo(typeElement, target);
             return target.toString();
@@ -484,89 +478,108 @@ public class TypeFileBuilder
         return "";
     }
 
-    public String listMemberSummary(TypeElement element)
+    public Content listMemberSummary(TypeElement element)
     {
         var content = new NoneEncodingContentBuilder();
         var memberBuilder = new MemberSummaryBuilder(
             configuration,
             element,
-            classTree
+            contextFor(element).getSummaryClassWriter()
         );
         memberBuilder.build(content);
-        return content.toString();
+        return content;
     }
 
-    public String listEnumConstantsDetails(TypeElement element) throws DocletException
+    public Content listEnumConstantsDetails(TypeElement element) throws DocletException
     {
-        var classWriter = new MarkdownClassWriterImpl(configuration, element, classTree);
+        var classWriter = contextFor(element).getClassWriter();
         var writer = new MarkdownEnumConstantsWriterImpl(classWriter);
 
         var content = new ContentBuilder();
         writer.buildDetails(content);
-        return content.toString();
+        return content;
     }
 
-    public String listPropertyDetails(TypeElement element) throws DocletException
+    public Content listPropertyDetails(TypeElement element) throws DocletException
     {
-        var classWriter = new MarkdownClassWriterImpl(configuration, element, classTree);
+        var classWriter = contextFor(element).getClassWriter();
         var writer = new MarkdownPropertyWriterImpl(classWriter);
 
         var content = new ContentBuilder();
         writer.buildDetails(content);
-        return content.toString();
+        return content;
     }
 
-    public String listFieldDetails(TypeElement element) throws DocletException
+    public Content listFieldDetails(TypeElement element) throws DocletException
     {
-        var classWriter = new MarkdownClassWriterImpl(configuration, element, classTree);
+        var classWriter = contextFor(element).getClassWriter();
         var writer = new MarkdownFieldWriterImpl(classWriter);
 
         var content = new ContentBuilder();
         writer.buildDetails(content);
-        return content.toString();
+        return content;
     }
 
-    public String listConstructorDetails(TypeElement element) throws DocletException
+    public Content listConstructorDetails(TypeElement element) throws DocletException
     {
-        var classWriter = new MarkdownClassWriterImpl(configuration, element, classTree);
+        var classWriter = contextFor(element).getClassWriter();
         var writer = new MarkdownConstructorWriterImpl(classWriter);
 
         var content = new ContentBuilder();
         writer.buildDetails(content);
-        return content.toString();
+        return content;
     }
 
-    public String listAnnotationMemberDetails(TypeElement element) throws DocletException
+    public Content listAnnotationMemberDetails(TypeElement element) throws DocletException
     {
-        var classWriter = new MarkdownClassWriterImpl(configuration, element, classTree);
+        var classWriter = contextFor(element).getClassWriter();
         var writer = new MarkdownAnnotationTypeMemberWriterImpl(classWriter, MarkdownAnnotationTypeMemberWriterImpl.Kind.ANY);
 
         var content = new ContentBuilder();
         writer.buildDetails(content);
-        return content.toString();
+        return content;
     }
 
-    public String listMethodMemberDetails(TypeElement element) throws DocletException
+    public Content listMethodMemberDetails(TypeElement element) throws DocletException
     {
-        var classWriter = new MarkdownClassWriterImpl(configuration, element, classTree);
+        var classWriter = contextFor(element).getClassWriter();
         var writer = new MarkdownMethodWriterImpl(classWriter);
 
         var content = new ContentBuilder();
         writer.buildDetails(content);
-        return content.toString();
+        return content;
     }
 
-    public void build() throws IOException
+    /**
+     * {@return the writers shared by all sections of the page of the given type}
+     */
+    private TypePageContext contextFor(TypeElement element)
     {
-        if (result == null)
+        if (context == null || !context.getTypeElement().equals(element))
         {
-            return;
+            context = new TypePageContext(configuration, element, classTree, DocPath.create(path.toString()));
         }
+        return context;
+    }
 
-        var path = this.rootPath.resolve(this.path);
+    @Override
+    public TypeModel getModel()
+    {
+        return model;
+    }
+
+    /**
+     * Renders the model into the target file, each section is only serialized when it is written.
+     */
+    @Override
+    public void build(final PageOutput output) throws IOException
+    {
+        if (model == null)
+        {
+            return;
+        }
 
-        Files.createDirectories(path.getParent());
-        Files.writeString(path, result);
+        output.write(this.rootPath.resolve(this.path), writer -> ModelRenderer.render(model, writer));
     }
 
 }
@@ -5,6 +5,7 @@ import com.communi.suggestu.javamark.doclet.utils.TypeUniverse;
 
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.TypeParameterElement;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeMirror;
@@ -30,7 +31,10 @@ public class TypeLinkBuilder
         this.typeDisplayNameBuilder = new TypeDisplayNameBuilder(typeUniverse, linkProvider);
     }
 
-    private TypeLinkBuilder(final TypeUniverse typeUniverse, final TypeLinkProvider linkProvider, final TypeDisplayNameBuilder builder)
+    /**
+     * @param builder the builder of the link texts, whose cached names are shared with this builder
+     */
+    public TypeLinkBuilder(final TypeUniverse typeUniverse, final TypeLinkProvider linkProvider, final TypeDisplayNameBuilder builder)
     {
         this.linkProvider = linkProvider;
         this.typeUniverse = typeUniverse;
@@ -79,6 +83,20 @@ public class TypeLinkBuilder
         return "<a href=\"%s\" title=\"%s\">%s</a>".formatted(relPath, linkText, linkText);
     }
 
+    /**
+     * Builds a Markdown link from sourceType to a section on the page of targetType.
+     * If no link can be generated, emits just the text.
+     */
+    public String build(Element sourceType, TypeElement targetType, String text, String anchor)
+    {
+        String relPath = linkProvider.getRelativeLink(sourceType, targetType.asType());
+        if (relPath == null)
+        {
+            return text;
+        }
+        return "[" + text + "](" + relPath + "#" + anchor + ")";
+    }
+
     /**
      * Builds a Markdown link from sourceType to targetType.
      * If no link can be generated, emits just the required name in the display mode.
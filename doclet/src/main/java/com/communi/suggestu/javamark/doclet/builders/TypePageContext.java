@@ -0,0 +1,78 @@
+package com.communi.suggestu.javamark.doclet.builders;
+
+import com.communi.suggestu.javamark.doclet.writers.MarkdownClassWriterImpl;
+import com.communi.suggestu.javamark.doclet.writers.MarkdownHtmlDocletWriter;
+import jdk.javadoc.internal.doclets.formats.html.ClassWriter;
+import jdk.javadoc.internal.doclets.formats.html.HtmlConfiguration;
+import jdk.javadoc.internal.doclets.toolkit.util.ClassTree;
+import jdk.javadoc.internal.doclets.toolkit.util.DocPath;
+
+import javax.lang.model.element.TypeElement;
+
+/**
+ * The writers used to render the sections of a single type page.
+ * <p>
+ * Each writer is created on first use and then shared by all sections of the page, the same way the standard doclet
+ * renders a whole class page with one {@link ClassWriter}.
+ */
+class TypePageContext
+{
+    private final HtmlConfiguration configuration;
+    private final TypeElement       typeElement;
+    private final ClassTree         classTree;
+    private final DocPath           path;
+
+    private MarkdownHtmlDocletWriter htmlWriter;
+    private MarkdownClassWriterImpl  classWriter;
+    private ClassWriter              summaryClassWriter;
+
+    TypePageContext(final HtmlConfiguration configuration, final TypeElement typeElement, final ClassTree classTree, final DocPath path)
+    {
+        this.configuration = configuration;
+        this.typeElement = typeElement;
+        this.classTree = classTree;
+        this.path = path;
+    }
+
+    TypeElement getTypeElement()
+    {
+        return typeElement;
+    }
+
+    /**
+     * {@return the writer for the doc comments, tags and signature of the type}
+     */
+    MarkdownHtmlDocletWriter getHtmlWriter()
+    {
+        if (htmlWriter == null)
+        {
+            htmlWriter = new MarkdownHtmlDocletWriter(configuration, path);
+        }
+        return htmlWriter;
+    }
+
+    /**
+     * {@return the class writer for the member details of the type}
+     */
+    MarkdownClassWriterImpl getClassWriter()
+    {
+        if (classWriter == null)
+        {
+            classWriter = new MarkdownClassWriterImpl(configuration, typeElement, classTree);
+        }
+        return classWriter;
+    }
+
+    /**
+     * {@return the class writer for the member summaries of the type}
+     * The summaries are rendered by the plain class writer of the standard doclet.
+     */
+    ClassWriter getSummaryClassWriter()
+    {
+        if (summaryClassWriter == null)
+        {
+            summaryClassWriter = new ClassWriter(configuration, typeElement, classTree);
+        }
+        return summaryClassWriter;
+    }
+}
@@ -0,0 +1,53 @@
+package com.communi.suggestu.javamark.doclet.content;
+
+import com.communi.suggestu.javamark.doclet.utils.MarkdownCommentSanitizingWriter;
+import jdk.javadoc.internal.html.Content;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Comment content which has its blank lines removed while it is written to the page, see
+ * {@link MarkdownCommentSanitizingWriter}.
+ * <p>
+ * The comment is written as if it started on a new line and used {@code \n} newlines. The kept lines are joined with
+ * the newline of the page, which also ends the comment, the same as if it had been rendered to a string first.
+ */
+public class SanitizedCommentContent extends Content
+{
+    private final Content comment;
+
+    public SanitizedCommentContent(final Content comment)
+    {
+        this.comment = comment;
+    }
+
+    @Override
+    public boolean write(final Writer out, final String newline, final boolean atNewline) throws IOException
+    {
+        var sanitizer = new MarkdownCommentSanitizingWriter(out, newline);
+        comment.write(sanitizer, "\n", true);
+        if (!sanitizer.hasOutput())
+        {
+            return atNewline;
+        }
+
+        if (!sanitizer.endsWithNewline())
+        {
+            out.write(newline);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return comment.isEmpty();
+    }
+
+    @Override
+    public int charCount()
+    {
+        return comment.charCount();
+    }
+}
@@ -0,0 +1,319 @@
+package com.communi.suggestu.javamark.doclet.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The pages of a whole run, which can be saved to a binary file and rendered again without the javadoc tool.
+ * <p>
+ * The file starts with a magic number and a format version, followed by the pages. Strings are stored as their length
+ * and UTF-8 bytes, a length of {@code -1} marks a missing value. Lists are stored as their size and their elements.
+ */
+public record DocumentationModel(List<PageModel> pages)
+{
+    private static final int MAGIC   = 0x4A4D444D;
+    private static final int VERSION = 1;
+
+    private static final byte TYPE_PAGE     = 0;
+    private static final byte PACKAGE_PAGE  = 1;
+    private static final byte MARKDOWN_PAGE = 2;
+
+    /**
+     * {@return a model of the given pages, ordered by their file}
+     */
+    public static DocumentationModel of(final List<PageModel> pages)
+    {
+        return new DocumentationModel(pages.stream().sorted(Comparator.comparing(PageModel::page)).toList());
+    }
+
+    /**
+     * Saves the model. Every fragment is serialized while it is written.
+     *
+     * @param file the file to write
+     * @throws IOException when the file could not be written
+     */
+    public void write(final Path file) throws IOException
+    {
+        if (file.toAbsolutePath().getParent() != null)
+        {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+
+        try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file))))
+        {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(pages.size());
+            for (final PageModel page : pages)
+            {
+                switch (page)
+                {
+                    case TypeModel type -> writeType(output, type);
+                    case PackageModel pkg -> writePackage(output, pkg);
+                    case MarkdownPage markdown -> {
+                        output.writeByte(MARKDOWN_PAGE);
+                        writeString(output, markdown.page());
+                        writeFragment(output, markdown.content());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a saved model.
+     *
+     * @param file the file to read
+     * @return the model
+     * @throws IOException when the file could not be read, or is not a model of this version
+     */
+    public static DocumentationModel read(final Path file) throws IOException
+    {
+        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+        {
+            if (input.readInt() != MAGIC)
+            {
+                throw new IOException(file + " is not a JavaMark documentation model");
+            }
+            var version = input.readInt();
+            if (version != VERSION)
+            {
+                throw new IOException("%s has model version %d, expected %d".formatted(file, version, VERSION));
+            }
+
+            var count = input.readInt();
+            var pages = new ArrayList<PageModel>(count);
+            for (int i = 0; i < count; i++)
+            {
+                var kind = input.readByte();
+                pages.add(switch (kind)
+                {
+                    case TYPE_PAGE -> readType(input);
+                    case PACKAGE_PAGE -> readPackage(input);
+                    case MARKDOWN_PAGE -> new MarkdownPage(readString(input), readFragment(input));
+                    default -> throw new IOException("Unknown page kind %d in %s".formatted(kind, file));
+                });
+            }
+            return new DocumentationModel(pages);
+        }
+    }
+
+    private static void writeType(final DataOutputStream output, final TypeModel type) throws IOException
+    {
+        output.writeByte(TYPE_PAGE);
+        writeString(output, type.page());
+        writeString(output, type.simpleName());
+        writeString(output, type.packageLink());
+        writeString(output, type.kind());
+        writeString(output, type.displayName());
+        writeStrings(output, type.superTypeHierarchy());
+
+        if (type.typeParameters() == null)
+        {
+            output.writeInt(-1);
+        }
+        else
+        {
+            output.writeInt(type.typeParameters().size());
+            for (final TypeModel.TypeParameter parameter : type.typeParameters())
+            {
+                writeString(output, parameter.name());
+                writeString(output, parameter.description());
+            }
+        }
+
+        output.writeInt(type.relations().size());
+        for (final TypeModel.Relation relation : type.relations())
+        {
+            writeString(output, relation.label());
+            writeStrings(output, relation.entries());
+        }
+
+        writeFragment(output, type.signature());
+        writeFragment(output, type.deprecation());
+        writeFragment(output, type.description());
+        writeFragment(output, type.tags());
+        writeFragment(output, type.memberSummary());
+        output.writeInt(type.memberDetails().size());
+        for (final Fragment details : type.memberDetails())
+        {
+            writeFragment(output, details);
+        }
+    }
+
+    private static TypeModel readType(final DataInputStream input) throws IOException
+    {
+        var page = readString(input);
+        var simpleName = readString(input);
+        var packageLink = readString(input);
+        var kind = readString(input);
+        var displayName = readString(input);
+        var superTypeHierarchy = readStrings(input);
+
+        List<TypeModel.TypeParameter> typeParameters = null;
+        var typeParameterCount = input.readInt();
+        if (typeParameterCount >= 0)
+        {
+            typeParameters = new ArrayList<>(typeParameterCount);
+            for (int i = 0; i < typeParameterCount; i++)
+            {
+                typeParameters.add(new TypeModel.TypeParameter(readString(input), readString(input)));
+            }
+        }
+
+        var relationCount = input.readInt();
+        var relations = new ArrayList<TypeModel.Relation>(relationCount);
+        for (int i = 0; i < relationCount; i++)
+        {
+            relations.add(new TypeModel.Relation(readString(input), readStrings(input)));
+        }
+
+        var signature = readFragment(input);
+        var deprecation = readFragment(input);
+        var description = readFragment(input);
+        var tags = readFragment(input);
+        var memberSummary = readFragment(input);
+        var detailCount = input.readInt();
+        var memberDetails = new ArrayList<Fragment>(detailCount);
+        for (int i = 0; i < detailCount; i++)
+        {
+            memberDetails.add(readFragment(input));
+        }
+
+        return new TypeModel(page, simpleName, packageLink, kind, displayName, superTypeHierarchy, typeParameters, relations,
+            signature, deprecation, description, tags, memberSummary, memberDetails);
+    }
+
+    private static void writePackage(final DataOutputStream output, final PackageModel pkg) throws IOException
+    {
+        output.writeByte(PACKAGE_PAGE);
+        writeString(output, pkg.page());
+        writeString(output, pkg.simpleName());
+        writeString(output, pkg.qualifiedName());
+        writeString(output, pkg.annotations());
+        writeString(output, pkg.description());
+
+        output.writeInt(pkg.types().size());
+        for (final PackageModel.TypeEntry type : pkg.types())
+        {
+            output.writeByte(type.category().ordinal());
+            writeString(output, type.link());
+            writeString(output, type.description());
+        }
+
+        output.writeBoolean(pkg.parent() != null);
+        if (pkg.parent() != null)
+        {
+            writePackageEntry(output, pkg.parent());
+        }
+
+        output.writeInt(pkg.children().size());
+        for (final PackageModel.PackageEntry child : pkg.children())
+        {
+            writePackageEntry(output, child);
+        }
+    }
+
+    private static PackageModel readPackage(final DataInputStream input) throws IOException
+    {
+        var page = readString(input);
+        var simpleName = readString(input);
+        var qualifiedName = readString(input);
+        var annotations = readString(input);
+        var description = readString(input);
+
+        var typeCount = input.readInt();
+        var types = new ArrayList<PackageModel.TypeEntry>(typeCount);
+        var categories = PackageModel.Category.values();
+        for (int i = 0; i < typeCount; i++)
+        {
+            types.add(new PackageModel.TypeEntry(categories[input.readByte()], readString(input), readString(input)));
+        }
+
+        var parent = input.readBoolean() ? readPackageEntry(input) : null;
+
+        var childCount = input.readInt();
+        var children = new ArrayList<PackageModel.PackageEntry>(childCount);
+        for (int i = 0; i < childCount; i++)
+        {
+            children.add(readPackageEntry(input));
+        }
+
+        return new PackageModel(page, simpleName, qualifiedName, annotations, description, types, parent, children);
+    }
+
+    private static void writePackageEntry(final DataOutputStream output, final PackageModel.PackageEntry entry) throws IOException
+    {
+        writeString(output, entry.link());
+        writeString(output, entry.description());
+    }
+
+    private static PackageModel.PackageEntry readPackageEntry(final DataInputStream input) throws IOException
+    {
+        return new PackageModel.PackageEntry(readString(input), readString(input));
+    }
+
+    private static void writeFragment(final DataOutputStream output, final Fragment fragment) throws IOException
+    {
+        writeString(output, fragment.render());
+    }
+
+    private static Fragment readFragment(final DataInputStream input) throws IOException
+    {
+        return Fragment.text(readString(input));
+    }
+
+    private static void writeStrings(final DataOutputStream output, final List<String> values) throws IOException
+    {
+        output.writeInt(values.size());
+        for (final String value : values)
+        {
+            writeString(output, value);
+        }
+    }
+
+    private static List<String> readStrings(final DataInputStream input) throws IOException
+    {
+        var count = input.readInt();
+        var values = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++)
+        {
+            values.add(readString(input));
+        }
+        return values;
+    }
+
+    private static void writeString(final DataOutputStream output, final String value) throws IOException
+    {
+        if (value == null)
+        {
+            output.writeInt(-1);
+            return;
+        }
+
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(final DataInputStream input) throws IOException
+    {
+        var length = input.readInt();
+        if (length < 0)
+        {
+            return null;
+        }
+        var bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
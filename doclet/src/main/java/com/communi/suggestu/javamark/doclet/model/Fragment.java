@@ -0,0 +1,55 @@
+package com.communi.suggestu.javamark.doclet.model;
+
+import jdk.javadoc.internal.html.Content;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * A piece of rendered Markdown in the documentation model.
+ * <p>
+ * A fragment made from content keeps the content as is, and only serializes it when the page is written or the model
+ * is saved. A saved fragment is read back as plain text.
+ */
+@FunctionalInterface
+public interface Fragment
+{
+    Fragment EMPTY = text("");
+
+    void writeTo(Writer writer) throws IOException;
+
+    /**
+     * {@return the Markdown of the fragment}
+     */
+    default String render()
+    {
+        var writer = new StringWriter();
+        try
+        {
+            writeTo(writer);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * {@return a fragment of the given Markdown}
+     */
+    static Fragment text(final String markdown)
+    {
+        return writer -> writer.write(markdown);
+    }
+
+    /**
+     * {@return a fragment which serializes the given content, as if it started on a new line}
+     */
+    static Fragment of(final Content content)
+    {
+        return writer -> content.write(writer, "\n", true);
+    }
+}
@@ -0,0 +1,11 @@
+package com.communi.suggestu.javamark.doclet.model;
+
+/**
+ * A page which has no structure of its own in the model, like the constants pages or the search index, and is kept as it is rendered.
+ *
+ * @param page    the file of the page
+ * @param content the whole page
+ */
+public record MarkdownPage(String page, Fragment content) implements PageModel
+{
+}
@@ -0,0 +1,54 @@
+package com.communi.suggestu.javamark.doclet.model;
+
+import java.util.List;
+
+/**
+ * The page of a package.
+ *
+ * @param page          the file of the page
+ * @param simpleName    the simple name of the package, which is the title of the page
+ * @param qualifiedName the qualified name of the package
+ * @param annotations   the annotations of the package declaration, blank if there are none
+ * @param description   the rendered doc comment of the package, blank if it has none
+ * @param types         the types in the package
+ * @param parent        the parent package, or null if it has none
+ * @param children      the child packages
+ */
+public record PackageModel(
+    String page,
+    String simpleName,
+    String qualifiedName,
+    String annotations,
+    String description,
+    List<TypeEntry> types,
+    PackageEntry parent,
+    List<PackageEntry> children) implements PageModel
+{
+    /**
+     * The tab of the package contents a type is listed in, next to the tab with all types.
+     */
+    public enum Category
+    {
+        INTERFACE,
+        CLASS,
+        ENUM,
+        RECORD
+    }
+
+    /**
+     * @param category    the tab the type is listed in
+     * @param link        the link to the type
+     * @param description the rendered summary of the type
+     */
+    public record TypeEntry(Category category, String link, String description)
+    {
+    }
+
+    /**
+     * @param link        the link to the package
+     * @param description the rendered summary of the package
+     */
+    public record PackageEntry(String link, String description)
+    {
+    }
+}
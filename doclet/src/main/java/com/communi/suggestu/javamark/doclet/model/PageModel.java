@@ -0,0 +1,12 @@
+package com.communi.suggestu.javamark.doclet.model;
+
+/**
+ * The model of a single page of the documentation.
+ */
+public sealed interface PageModel permits TypeModel, PackageModel, MarkdownPage
+{
+    /**
+     * {@return the file of the page, relative to the output directory and separated by {@code /}}
+     */
+    String page();
+}
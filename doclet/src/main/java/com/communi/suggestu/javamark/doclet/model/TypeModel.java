@@ -0,0 +1,57 @@
+package com.communi.suggestu.javamark.doclet.model;
+
+import java.util.List;
+
+/**
+ * The page of a type. Links and names are resolved while the model is extracted, the comments, signatures and member
+ * sections are rendered Markdown.
+ *
+ * @param page               the file of the page
+ * @param simpleName         the simple name of the type, which is the title of the page
+ * @param packageLink        the link to the package of the type, or null if it has none
+ * @param kind               the kind of the type, for example {@code Class} or {@code Interface}
+ * @param displayName        the name of the type in the heading, with its type parameters
+ * @param superTypeHierarchy the links to the super classes of a class, from the root down to the class itself,
+ *                           empty for all other kinds of types
+ * @param typeParameters     the documented type parameters, or null if the type documents none
+ * @param relations          the related types, like the implemented interfaces and known subclasses
+ * @param signature          the declaration of the type
+ * @param deprecation        the deprecation notice
+ * @param description        the main description of the type
+ * @param tags               the block tags of the type, like {@code @since} and {@code @see}
+ * @param memberSummary      the summary tables of the members
+ * @param memberDetails      the details of the enum constants, properties, fields, constructors, annotation members
+ *                           and methods, in that order
+ */
+public record TypeModel(
+    String page,
+    String simpleName,
+    String packageLink,
+    String kind,
+    String displayName,
+    List<String> superTypeHierarchy,
+    List<TypeParameter> typeParameters,
+    List<Relation> relations,
+    Fragment signature,
+    Fragment deprecation,
+    Fragment description,
+    Fragment tags,
+    Fragment memberSummary,
+    List<Fragment> memberDetails) implements PageModel
+{
+    /**
+     * @param name        the name of the type parameter
+     * @param description the rendered description of the type parameter
+     */
+    public record TypeParameter(String name, String description)
+    {
+    }
+
+    /**
+     * @param label   the label of the relation, for example {@code All Implemented Interfaces}
+     * @param entries the links to the related types, or a sentence describing the relation
+     */
+    public record Relation(String label, List<String> entries)
+    {
+    }
+}
@@ -0,0 +1,178 @@
+package com.communi.suggestu.javamark.doclet.rendering;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * An output stream which compares the written bytes with an existing file, and only starts writing to disk once they
+ * differ.
+ * <p>
+ * As long as the bytes match nothing is written. On the first difference the matching prefix is copied from the existing
+ * file into a temporary file next to the target, which then receives the rest of the bytes and is moved over the target
+ * by {@link #finish()}.
+ */
+class ComparingOutputStream extends OutputStream
+{
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Path   existing;
+    private final Path   target;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private InputStream  existingStream;
+    private OutputStream temporaryStream;
+    private Path         temporaryFile;
+    private long         matched;
+
+    /**
+     * Creates a new stream.
+     *
+     * @param existing the file to compare with, which does not need to exist
+     * @param target   the file which is replaced when the bytes differ, which is usually the same file
+     * @throws IOException when the existing file could not be opened
+     */
+    ComparingOutputStream(final Path existing, final Path target) throws IOException
+    {
+        this.existing = existing;
+        this.target = target;
+
+        if (Files.isRegularFile(existing))
+        {
+            this.existingStream = new BufferedInputStream(Files.newInputStream(existing), BUFFER_SIZE);
+        }
+        else
+        {
+            diverge();
+        }
+    }
+
+    @Override
+    public void write(final int b) throws IOException
+    {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException
+    {
+        if (temporaryStream != null)
+        {
+            temporaryStream.write(bytes, offset, length);
+            return;
+        }
+
+        var position = offset;
+        var remaining = length;
+        while (remaining > 0)
+        {
+            var chunk = Math.min(remaining, buffer.length);
+            var read = existingStream.readNBytes(buffer, 0, chunk);
+            if (read != chunk || !Arrays.equals(buffer, 0, chunk, bytes, position, position + chunk))
+            {
+                diverge();
+                temporaryStream.write(bytes, position, remaining);
+                return;
+            }
+
+            matched += chunk;
+            position += chunk;
+            remaining -= chunk;
+        }
+    }
+
+    /**
+     * Completes the comparison, and replaces the target when the written bytes differ from the existing file.
+     *
+     * @return true if the target was written, false if the existing file already contained exactly the written bytes
+     * @throws IOException when the target could not be written
+     */
+    boolean finish() throws IOException
+    {
+        if (temporaryStream == null)
+        {
+            if (existingStream.read() < 0)
+            {
+                existingStream.close();
+                existingStream = null;
+                return false;
+            }
+
+            diverge();
+        }
+
+        temporaryStream.close();
+        temporaryStream = null;
+        try
+        {
+            Files.move(temporaryFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException e)
+        {
+            Files.move(temporaryFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        temporaryFile = null;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            if (existingStream != null)
+            {
+                existingStream.close();
+            }
+            if (temporaryStream != null)
+            {
+                temporaryStream.close();
+            }
+        }
+        finally
+        {
+            if (temporaryFile != null)
+            {
+                Files.deleteIfExists(temporaryFile);
+            }
+        }
+    }
+
+    private void diverge() throws IOException
+    {
+        Files.createDirectories(target.getParent());
+        temporaryFile = Files.createTempFile(target.getParent(), ".javamark-", ".tmp");
+        temporaryStream = new BufferedOutputStream(Files.newOutputStream(temporaryFile), BUFFER_SIZE);
+
+        if (existingStream == null)
+        {
+            return;
+        }
+
+        existingStream.close();
+        existingStream = null;
+        try (var prefix = Files.newInputStream(existing))
+        {
+            var remaining = matched;
+            while (remaining > 0)
+            {
+                var read = prefix.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0)
+                {
+                    throw new EOFException("File changed while it was compared: " + existing);
+                }
+
+                temporaryStream.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.communi.suggestu.javamark.doclet.rendering;
+
+import com.communi.suggestu.javamark.doclet.builders.HtmlTableBuilder;
+import com.communi.suggestu.javamark.doclet.builders.TableBuilder;
+import com.communi.suggestu.javamark.doclet.builders.VitepressTabbedEnvironmentBuilder;
+import com.communi.suggestu.javamark.doclet.model.DocumentationModel;
+import com.communi.suggestu.javamark.doclet.model.Fragment;
+import com.communi.suggestu.javamark.doclet.model.MarkdownPage;
+import com.communi.suggestu.javamark.doclet.model.PackageModel;
+import com.communi.suggestu.javamark.doclet.model.PageModel;
+import com.communi.suggestu.javamark.doclet.model.TypeModel;
+import com.communi.suggestu.javamark.doclet.utils.Constants;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Turns the documentation model into Markdown pages. This is where the layout of the type and package pages lives.
+ * <p>
+ * The renderer only depends on the model, so a saved model can be rendered again without the javadoc tool, see
+ * {@link #main(String[])}.
+ */
+public final class ModelRenderer
+{
+    private ModelRenderer()
+    {
+        throw new IllegalStateException("Can not instantiate utility class");
+    }
+
+    /**
+     * Renders a saved model into an output directory, which afterward contains exactly the pages of the model.
+     * <p>
+     * Usage: {@code ModelRenderer <model> <output directory> [render threads]}
+     *
+     * @param args the arguments
+     * @throws IOException when the model could not be read, or the pages could not be written
+     */
+    public static void main(final String[] args) throws IOException
+    {
+        if (args.length < 2 || args.length > 3)
+        {
+            System.err.println("Usage: ModelRenderer <model> <output directory> [render threads]");
+            System.exit(2);
+            return;
+        }
+
+        var model = DocumentationModel.read(Path.of(args[0]));
+        var outputRoot = Path.of(args[1]);
+        var threads = args.length == 3 ? Integer.parseInt(args[2]) : 1;
+        try (var output = PageOutput.direct(outputRoot);
+             var renderingEngine = new PageRenderingEngine(threads, output))
+        {
+            for (final PageModel page : model.pages())
+            {
+                var target = output.getOutputRoot().resolve(page.page());
+                renderingEngine.submit(pageOutput -> pageOutput.write(target, writer -> render(page, writer)));
+            }
+            renderingEngine.awaitCompletion();
+            output.commit();
+        }
+    }
+
+    /**
+     * Writes the Markdown of the given page.
+     *
+     * @param page   the page to render
+     * @param writer the target of the page
+     * @throws IOException when the page could not be written
+     */
+    public static void render(final PageModel page, final Writer writer) throws IOException
+    {
+        switch (page)
+        {
+            case TypeModel type -> renderType(type, writer);
+            case PackageModel pkg -> writer.write(renderPackage(pkg));
+            case MarkdownPage markdown -> markdown.content().writeTo(writer);
+        }
+    }
+
+    private static void renderType(final TypeModel type, final Writer writer) throws IOException
+    {
+        writer.write("--- \n" +
+            "title: " + type.simpleName() + "\n" +
+            "aside: false \n" +
+            "sidebar: false \n" +
+            "---\n");
+
+        if (type.packageLink() != null)
+        {
+            writer.write("_Package:_ " + type.packageLink() + Constants.MARKDOWN_NEW_LINE);
+        }
+
+        writer.write("# " + type.kind() + " " + type.displayName() + Constants.MARKDOWN_NEW_LINE);
+
+        if (!type.superTypeHierarchy().isEmpty())
+        {
+            writer.write(renderSuperTypeHierarchy(type.superTypeHierarchy()) + Constants.MARKDOWN_NEW_LINE);
+        }
+
+        if (type.typeParameters() != null)
+        {
+            writer.write("**Type Parameters:**" + Constants.MARKDOWN_NEW_LINE);
+            for (final TypeModel.TypeParameter parameter : type.typeParameters())
+            {
+                writer.write(parameter.name() + " - " + parameter.description() + Constants.MARKDOWN_NEW_LINE);
+            }
+            writer.write("\n");
+        }
+
+        for (final TypeModel.Relation relation : type.relations())
+        {
+            writer.write("**" + relation.label() + ":**" + Constants.MARKDOWN_NEW_LINE +
+                String.join(", ", relation.entries()) +
+                Constants.MARKDOWN_NEW_LINE + "\n");
+        }
+
+        writer.write("---\n");
+
+        writeSection(writer, type.signature());
+        writeSection(writer, type.deprecation());
+        writeSection(writer, type.description());
+        writeSection(writer, type.tags());
+        writeSection(writer, type.memberSummary());
+        for (final Fragment details : type.memberDetails())
+        {
+            writeSection(writer, details);
+        }
+    }
+
+    /**
+     * Indents every super class one step further than its parent, ending with the type itself.
+     */
+    private static String renderSuperTypeHierarchy(final List<String> links)
+    {
+        var hierarchy = new StringBuilder();
+        for (int index = 0; index < links.size(); index++)
+        {
+            var last = index == links.size() - 1;
+            hierarchy
+                .append("&ensp;".repeat(index))
+                .append(index == 0 && !last ? "" : "↳")
+                .append(links.get(index)).append(Constants.MARKDOWN_NEW_LINE);
+        }
+        return hierarchy.toString();
+    }
+
+    private static void writeSection(final Writer writer, final Fragment section) throws IOException
+    {
+        section.writeTo(writer);
+        writer.write(Constants.MARKDOWN_NEW_LINE + "\n");
+    }
+
+    private static String renderPackage(final PackageModel pkg)
+    {
+        var builder = new StringBuilder();
+        builder.append("---\n");
+        builder.append("title: ").append(pkg.simpleName()).append("\n");
+        builder.append("sidebar: false").append("\n");
+        builder.append("---\n\n");
+        builder.append("# Package: ").append(pkg.qualifiedName()).append("\n\n---\n\n");
+
+        builder.append("```").append("\n");
+        if (!pkg.annotations().isBlank())
+        {
+            builder.append(pkg.annotations()).append("\n");
+        }
+        builder.append("package ").append(pkg.qualifiedName()).append(";\n```\n");
+
+        if (StringUtils.isNotBlank(pkg.description()))
+        {
+            builder.append(pkg.description()).append("\n\n");
+        }
+
+        builder.append("### Package Contents\n\n");
+        builder.append(renderContentsTabs(pkg.types()));
+
+        var relatedSection = renderRelatedSection(pkg);
+        if (StringUtils.isNotBlank(relatedSection))
+        {
+            builder.append("\n### Related\n\n").append(relatedSection);
+        }
+        return builder.toString();
+    }
+
+    private static String renderContentsTabs(final List<PackageModel.TypeEntry> types)
+    {
+        VitepressTabbedEnvironmentBuilder tabs = new VitepressTabbedEnvironmentBuilder().withKey("PackageContents");
+        tabs.addTab("All Types", renderTypeTable(types));
+        tabs.addTab("Interfaces", renderTypeTable(ofCategory(types, PackageModel.Category.INTERFACE)));
+        tabs.addTab("Classes", renderTypeTable(ofCategory(types, PackageModel.Category.CLASS)));
+        tabs.addTab("Enums", renderTypeTable(ofCategory(types, PackageModel.Category.ENUM)));
+        tabs.addTab("Records", renderTypeTable(ofCategory(types, PackageModel.Category.RECORD)));
+        return tabs.build();
+    }
+
+    private static List<PackageModel.TypeEntry> ofCategory(final List<PackageModel.TypeEntry> types, final PackageModel.Category category)
+    {
+        return types.stream().filter(type -> type.category() == category).toList();
+    }
+
+    private static String renderTypeTable(final List<PackageModel.TypeEntry> types)
+    {
+        if (types.isEmpty())
+        {
+            return "No types found.";
+        }
+
+        TableBuilder table = new HtmlTableBuilder().withHeaders("Class", "Description");
+        for (final PackageModel.TypeEntry type : types)
+        {
+            table.addRow(type.link(), type.description());
+        }
+        return table.build();
+    }
+
+    private static String renderRelatedSection(final PackageModel pkg)
+    {
+        if (pkg.parent() == null && pkg.children().isEmpty())
+        {
+            return "";
+        }
+
+        TableBuilder table = new HtmlTableBuilder().withHeaders("Package", "Description");
+        if (pkg.parent() != null)
+        {
+            table.addRow(pkg.parent().link(), pkg.parent().description());
+        }
+        for (final PackageModel.PackageEntry child : pkg.children())
+        {
+            table.addRow(child.link(), child.description());
+        }
+        return table.build();
+    }
+}
@@ -0,0 +1,433 @@
+package com.communi.suggestu.javamark.doclet.rendering;
+
+import com.communi.suggestu.javamark.doclet.utils.TypeUniverse;
+import com.sun.source.doctree.ReferenceTree;
+import com.sun.source.util.DocTreePath;
+import com.sun.source.util.DocTreePathScanner;
+import jdk.javadoc.internal.doclets.formats.html.HtmlConfiguration;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.IntersectionType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.Elements;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Computes a fingerprint of everything a type or package page is rendered from.
+ * <p>
+ * A type page depends on the declarations and doc comments of the type itself and of every type which contributes
+ * visible members to it, on its super type hierarchy, its subtypes, its enclosing type and, with {@code -use},
+ * the elements which refer to it. A package page depends on the package, the types in it and its related packages.
+ * Every fingerprint also includes the classes of the doclet and the options of the run which change its output.
+ * <p>
+ * Whether a referenced type or package is documented decides whether it becomes a link, so a page also depends on
+ * that, but only for the types and packages it refers to. Adding or removing a type therefore only renders the pages
+ * again which refer to it, the page of its package and the pages of its super types.
+ */
+public class PageFingerprinter
+{
+    private static final Comparator<Element> BY_NAME = Comparator.comparing(element -> element.toString());
+
+    private final HtmlConfiguration          configuration;
+    private final TypeUniverse               typeUniverse;
+    private final Elements                   elementUtils;
+    private final Set<PackageElement>        knownPackages;
+    private final byte[]                     runFingerprint;
+    private final Map<TypeElement, byte[]>   declarationFingerprints = new HashMap<>();
+    private final Map<TypeElement, Set<String>> declarationReferences = new HashMap<>();
+
+    public PageFingerprinter(
+        final HtmlConfiguration configuration,
+        final TypeUniverse typeUniverse,
+        final Elements elementUtils,
+        final List<String> options,
+        final Set<PackageElement> knownPackages)
+    {
+        this.configuration = configuration;
+        this.typeUniverse = typeUniverse;
+        this.elementUtils = elementUtils;
+        this.knownPackages = knownPackages;
+
+        var digest = newDigest();
+        update(digest, getDocletFingerprint());
+        options.forEach(option -> update(digest, option));
+        this.runFingerprint = digest.digest();
+    }
+
+    /**
+     * {@return the fingerprint of the page of the given type}
+     *
+     * @param type the type
+     */
+    public String fingerprint(final TypeElement type)
+    {
+        var digest = newDigest();
+        digest.update(runFingerprint);
+        update(digest, "type " + type.getQualifiedName());
+
+        var contributingTypes = new TreeMap<String, TypeElement>();
+        contributingTypes.put(type.getQualifiedName().toString(), type);
+        for (final TypeElement visibleType : configuration.getVisibleMemberTable(type).getVisibleTypeElements())
+        {
+            contributingTypes.put(visibleType.getQualifiedName().toString(), visibleType);
+        }
+        contributingTypes.values().forEach(contributingType -> digest.update(getDeclarationFingerprint(contributingType)));
+
+        var references = new HashSet<String>();
+        references.add(describe(elementUtils.getPackageOf(type)));
+        contributingTypes.values().forEach(contributingType -> references.addAll(getDeclarationReferences(contributingType)));
+
+        typeUniverse.getSuperTypeHierarchy(type).forEach(superType -> {
+            update(digest, "super " + superType);
+            addTypeReferences(references, superType);
+        });
+        typeUniverse.getAllSubTypes(type).forEach(subType -> {
+            update(digest, "sub " + subType.getKind() + " " + subType.getQualifiedName());
+            references.add(describe(subType));
+        });
+        if (type.getEnclosingElement() instanceof TypeElement enclosingType)
+        {
+            update(digest, "enclosing " + enclosingType.getQualifiedName());
+            references.add(describe(enclosingType));
+        }
+        if (configuration.getOptions().classUse())
+        {
+            for (final TypeUniverse.UseKind useKind : TypeUniverse.UseKind.values())
+            {
+                typeUniverse.getUses(type, useKind).forEach(user -> {
+                    update(digest, "used by " + useKind + " " + user.getEnclosingElement() + " " + user);
+                    if (user.getEnclosingElement() instanceof TypeElement userType)
+                    {
+                        references.add(describe(userType));
+                    }
+                });
+            }
+        }
+        updateReferences(digest, references);
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * {@return the fingerprint of the page of the given package}
+     *
+     * @param pkg the package
+     */
+    public String fingerprint(final PackageElement pkg)
+    {
+        var digest = newDigest();
+        digest.update(runFingerprint);
+        update(digest, "package " + pkg.getQualifiedName());
+        updateAnnotations(digest, pkg.getAnnotationMirrors());
+        update(digest, elementUtils.getDocComment(pkg));
+
+        var references = new HashSet<String>();
+        addCommentReferences(references, pkg);
+        typeUniverse.getTypesInPackage(pkg).stream()
+            .sorted(BY_NAME)
+            .forEach(type -> {
+                update(digest, type.getKind() + " " + type.getQualifiedName());
+                update(digest, elementUtils.getDocComment(type));
+                addCommentReferences(references, type);
+            });
+
+        var parent = typeUniverse.getParentOf(pkg);
+        if (parent != null)
+        {
+            update(digest, "parent " + parent.getQualifiedName());
+            update(digest, elementUtils.getDocComment(parent));
+        }
+        typeUniverse.getChildPackages(pkg).stream()
+            .sorted(BY_NAME)
+            .forEach(child -> {
+                update(digest, "child " + child.getQualifiedName());
+                update(digest, elementUtils.getDocComment(child));
+            });
+        updateReferences(digest, references);
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * {@return the fingerprint of the declaration of the given type, its members and their doc comments}
+     * This does not depend on the page being rendered, and is therefore shared between all pages.
+     *
+     * @param type the type
+     */
+    private byte[] getDeclarationFingerprint(final TypeElement type)
+    {
+        return declarationFingerprints.computeIfAbsent(type, key -> {
+            var digest = newDigest();
+            updateElement(digest, type);
+            for (final TypeParameterElement typeParameter : type.getTypeParameters())
+            {
+                update(digest, typeParameter + " " + typeParameter.getBounds());
+            }
+            update(digest, "extends " + type.getSuperclass());
+            type.getInterfaces().forEach(iface -> update(digest, "implements " + iface));
+
+            for (final Element member : type.getEnclosedElements())
+            {
+                updateElement(digest, member);
+                if (member instanceof ExecutableElement executable)
+                {
+                    update(digest, "returns " + executable.getReturnType());
+                    for (final VariableElement parameter : executable.getParameters())
+                    {
+                        updateElement(digest, parameter);
+                        update(digest, String.valueOf(parameter.asType()));
+                    }
+                    executable.getThrownTypes().forEach(thrown -> update(digest, "throws " + thrown));
+                    update(digest, "default " + executable.getDefaultValue());
+                }
+                else if (member instanceof VariableElement variable)
+                {
+                    update(digest, String.valueOf(variable.asType()));
+                    update(digest, "constant " + variable.getConstantValue());
+                }
+            }
+            return digest.digest();
+        });
+    }
+
+    /**
+     * {@return the types and packages which the declaration, members and doc comments of the given type refer to}
+     * Like the fingerprint of the declaration, this is shared between all pages.
+     *
+     * @param type the type
+     */
+    private Set<String> getDeclarationReferences(final TypeElement type)
+    {
+        return declarationReferences.computeIfAbsent(type, key -> {
+            var references = new HashSet<String>();
+            addElementReferences(references, type);
+            type.getTypeParameters().forEach(typeParameter -> typeParameter.getBounds().forEach(bound -> addTypeReferences(references, bound)));
+            addTypeReferences(references, type.getSuperclass());
+            type.getInterfaces().forEach(iface -> addTypeReferences(references, iface));
+
+            for (final Element member : type.getEnclosedElements())
+            {
+                addElementReferences(references, member);
+                if (member instanceof ExecutableElement executable)
+                {
+                    executable.getTypeParameters().forEach(typeParameter -> typeParameter.getBounds().forEach(bound -> addTypeReferences(references, bound)));
+                    addTypeReferences(references, executable.getReturnType());
+                    for (final VariableElement parameter : executable.getParameters())
+                    {
+                        addElementReferences(references, parameter);
+                        addTypeReferences(references, parameter.asType());
+                    }
+                    executable.getThrownTypes().forEach(thrown -> addTypeReferences(references, thrown));
+                }
+                else if (member instanceof VariableElement variable)
+                {
+                    addTypeReferences(references, variable.asType());
+                }
+                else if (member instanceof TypeElement nestedType)
+                {
+                    references.add(describe(nestedType));
+                }
+            }
+            return references;
+        });
+    }
+
+    private void addElementReferences(final Set<String> references, final Element element)
+    {
+        element.getAnnotationMirrors().forEach(annotation -> references.add(describe(annotation.getAnnotationType().asElement())));
+        addCommentReferences(references, element);
+    }
+
+    /**
+     * Adds the types and packages which the links and see tags of the doc comment of the given element refer to.
+     * Referenced members add the type they belong to.
+     */
+    private void addCommentReferences(final Set<String> references, final Element element)
+    {
+        var docTrees = configuration.docEnv.getDocTrees();
+        var comment = docTrees.getDocCommentTree(element);
+        var path = docTrees.getPath(element);
+        if (comment == null || path == null)
+        {
+            return;
+        }
+
+        new DocTreePathScanner<Void, Void>()
+        {
+            @Override
+            public Void visitReference(final ReferenceTree node, final Void unused)
+            {
+                var referenced = docTrees.getElement(getCurrentPath());
+                while (referenced != null && !(referenced instanceof TypeElement) && !(referenced instanceof PackageElement))
+                {
+                    referenced = referenced.getEnclosingElement();
+                }
+                // An unresolved reference becomes a link once the type it names is documented.
+                references.add(referenced == null ? "unresolved " + node.getSignature() : describe(referenced));
+                return super.visitReference(node, unused);
+            }
+        }.scan(new DocTreePath(path, comment), null);
+    }
+
+    /**
+     * Adds the types which the given type is made of: declared types with their type arguments, array components,
+     * wildcard bounds and type annotations. Type variables are left out, their bounds belong to their declaration.
+     */
+    private void addTypeReferences(final Set<String> references, final TypeMirror type)
+    {
+        if (type == null)
+        {
+            return;
+        }
+
+        type.getAnnotationMirrors().forEach(annotation -> references.add(describe(annotation.getAnnotationType().asElement())));
+        if (type instanceof DeclaredType declaredType)
+        {
+            references.add(describe(declaredType.asElement()));
+            declaredType.getTypeArguments().forEach(argument -> addTypeReferences(references, argument));
+            if (declaredType.getEnclosingType().getKind() == TypeKind.DECLARED)
+            {
+                addTypeReferences(references, declaredType.getEnclosingType());
+            }
+        }
+        else if (type instanceof ArrayType arrayType)
+        {
+            addTypeReferences(references, arrayType.getComponentType());
+        }
+        else if (type instanceof WildcardType wildcardType)
+        {
+            addTypeReferences(references, wildcardType.getExtendsBound());
+            addTypeReferences(references, wildcardType.getSuperBound());
+        }
+        else if (type instanceof IntersectionType intersectionType)
+        {
+            intersectionType.getBounds().forEach(bound -> addTypeReferences(references, bound));
+        }
+    }
+
+    /**
+     * Updates the digest with the given referenced types and packages.
+     */
+    private static void updateReferences(final MessageDigest digest, final Set<String> references)
+    {
+        references.stream()
+            .sorted()
+            .forEach(reference -> update(digest, "refers to " + reference));
+    }
+
+    /**
+     * {@return the name of the given referenced type or package, and whether it is documented}
+     */
+    private String describe(final Element element)
+    {
+        var documented = false;
+        if (element instanceof TypeElement type)
+        {
+            documented = typeUniverse.contains(type.asType());
+        }
+        else if (element instanceof PackageElement pkg)
+        {
+            documented = knownPackages.contains(pkg);
+        }
+        return element.getKind() + " " + element + " " + documented;
+    }
+
+    /**
+     * {@return the digest of the jar or class directory this doclet is loaded from}
+     * A doclet which is rebuilt at the same location renders the pages differently, so its classes are hashed.
+     * Only when they can not be read is the location used instead.
+     */
+    private static String getDocletFingerprint()
+    {
+        var codeSource = PageFingerprinter.class.getProtectionDomain().getCodeSource();
+        if (codeSource == null || codeSource.getLocation() == null)
+        {
+            return "unknown doclet";
+        }
+
+        try
+        {
+            var location = Path.of(codeSource.getLocation().toURI());
+            var digest = newDigest();
+            if (Files.isDirectory(location))
+            {
+                try (var files = Files.walk(location))
+                {
+                    for (final Path file : files.filter(Files::isRegularFile).sorted().toList())
+                    {
+                        update(digest, location.relativize(file).toString().replace(File.separatorChar, '/'));
+                        digest.update(Files.readAllBytes(file));
+                    }
+                }
+            }
+            else
+            {
+                digest.update(Files.readAllBytes(location));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        }
+        catch (URISyntaxException | IOException | IllegalArgumentException | FileSystemNotFoundException e)
+        {
+            return codeSource.getLocation().toString();
+        }
+    }
+
+    private void updateElement(final MessageDigest digest, final Element element)
+    {
+        update(digest, element.getKind() + " " + element.getModifiers() + " " + element);
+        updateAnnotations(digest, element.getAnnotationMirrors());
+        update(digest, elementUtils.getDocComment(element));
+    }
+
+    private static void updateAnnotations(final MessageDigest digest, final List<? extends AnnotationMirror> annotations)
+    {
+        for (final AnnotationMirror annotation : annotations)
+        {
+            update(digest, annotation.toString());
+        }
+    }
+
+    private static void update(final MessageDigest digest, final CharSequence value)
+    {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest newDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException("SHA-256 is required to be supported by every JVM", e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.communi.suggestu.javamark.doclet.rendering;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The fingerprints of all pages written by a run, stored in the output directory so the next run can skip unchanged pages.
+ * <p>
+ * The manifest is a plain text file, with one {@code <fingerprint> <page>} line per page, sorted by page.
+ */
+public class PageManifest
+{
+    public static final String FILE_NAME = ".javamark-manifest";
+
+    private final Map<String, String> fingerprints = new TreeMap<>();
+
+    /**
+     * Reads the manifest of the previous run from the given output directory.
+     *
+     * @param outputRoot the output directory
+     * @return the manifest, which is empty if the previous run did not write one
+     * @throws IOException when the manifest exists but could not be read
+     */
+    public static PageManifest read(final Path outputRoot) throws IOException
+    {
+        var manifest = new PageManifest();
+        var file = outputRoot.resolve(FILE_NAME);
+        if (!Files.isRegularFile(file))
+        {
+            return manifest;
+        }
+
+        for (final String line : Files.readAllLines(file))
+        {
+            var separator = line.indexOf(' ');
+            if (separator <= 0)
+            {
+                continue;
+            }
+
+            manifest.fingerprints.put(line.substring(separator + 1), line.substring(0, separator));
+        }
+        return manifest;
+    }
+
+    public void put(final String page, final String fingerprint)
+    {
+        fingerprints.put(page, fingerprint);
+    }
+
+    /**
+     * {@return true if the page was written with the given fingerprint, and still exists in the output directory}
+     *
+     * @param outputRoot  the output directory
+     * @param page        the page, relative to the output directory
+     * @param fingerprint the fingerprint of the inputs of the page in the current run
+     */
+    public boolean isUpToDate(final Path outputRoot, final String page, final String fingerprint)
+    {
+        return fingerprint.equals(fingerprints.get(page)) && Files.isRegularFile(outputRoot.resolve(page));
+    }
+
+    public void write(final PageOutput output) throws IOException
+    {
+        output.write(output.getOutputRoot().resolve(FILE_NAME), writer -> {
+            for (final Map.Entry<String, String> entry : fingerprints.entrySet())
+            {
+                writer.write(entry.getValue());
+                writer.write(' ');
+                writer.write(entry.getKey());
+                writer.write('\n');
+            }
+        });
+    }
+}
@@ -0,0 +1,304 @@
+package com.communi.suggestu.javamark.doclet.rendering;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The output directory of a run, as seen by the pages which are written into it.
+ * <p>
+ * Pages are compared with the file of the previous run and only written when their bytes differ, so unchanged pages
+ * keep their modification time. When the run is committed every file which was not produced by it is removed.
+ * <p>
+ * A staged output renders into a sibling staging directory instead, which replaces the output directory on
+ * {@link #commit()}. Unchanged pages are hard linked from the previous output, so they still keep their modification
+ * time. Until the commit the previous output stays untouched, and a failed run leaves it exactly as it was.
+ */
+public class PageOutput implements AutoCloseable
+{
+    private static final String STAGING_SUFFIX  = ".javamark-staging";
+    private static final String PREVIOUS_SUFFIX = ".javamark-previous";
+
+    private final Path      outputRoot;
+    private final Path      targetRoot;
+    private final Set<Path> pages = ConcurrentHashMap.newKeySet();
+
+    private boolean committed = false;
+    private boolean keepStaging = false;
+
+    private PageOutput(final Path outputRoot, final Path targetRoot)
+    {
+        this.outputRoot = outputRoot;
+        this.targetRoot = targetRoot;
+    }
+
+    /**
+     * Creates an output which writes the changed pages directly into the output directory.
+     *
+     * @param outputRoot the output directory
+     * @return the output
+     */
+    public static PageOutput direct(final Path outputRoot)
+    {
+        var root = outputRoot.toAbsolutePath().normalize();
+        return new PageOutput(root, root);
+    }
+
+    /**
+     * Creates an output which writes into a fresh staging directory next to the output directory.
+     *
+     * @param outputRoot the output directory
+     * @return the output
+     * @throws IOException when the staging directory could not be created
+     */
+    public static PageOutput staged(final Path outputRoot) throws IOException
+    {
+        var root = outputRoot.toAbsolutePath().normalize();
+        var staging = root.resolveSibling(root.getFileName() + STAGING_SUFFIX);
+        FileUtils.deleteDirectory(staging.toFile());
+        Files.createDirectories(staging);
+        return new PageOutput(root, staging);
+    }
+
+    public Path getOutputRoot()
+    {
+        return outputRoot;
+    }
+
+    /**
+     * Writes the given page, unless the output directory already contains exactly the same bytes.
+     * This may be called from any thread.
+     *
+     * @param page   the file of the page in the output directory
+     * @param writer the callback which writes the contents of the page
+     * @throws IOException when the page could not be written
+     */
+    public void write(final Path page, final PageWriter writer) throws IOException
+    {
+        writeBytes(page, stream -> {
+            var output = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+            writer.writeTo(output);
+            output.flush();
+        });
+    }
+
+    /**
+     * Writes the given page with the contents of a file from outside of the output directory, for example a page which
+     * was rendered by another shard. Like a written page, it is only written when its bytes differ.
+     * This may be called from any thread.
+     *
+     * @param page   the file of the page in the output directory
+     * @param source the file to copy
+     * @throws IOException when the page could not be written
+     */
+    public void include(final Path page, final Path source) throws IOException
+    {
+        writeBytes(page, stream -> Files.copy(source, stream));
+    }
+
+    private void writeBytes(final Path page, final StreamWriter writer) throws IOException
+    {
+        var relativePage = register(page);
+        var existing = outputRoot.resolve(relativePage);
+        var target = targetRoot.resolve(relativePage);
+
+        try (var stream = new ComparingOutputStream(existing, target))
+        {
+            writer.writeTo(stream);
+
+            if (!stream.finish() && !existing.equals(target))
+            {
+                link(existing, target);
+            }
+        }
+    }
+
+    /**
+     * Keeps the given page of the previous run, without rendering it again.
+     *
+     * @param page the file of the page in the output directory
+     * @throws IOException when the page could not be carried over into the staging directory
+     */
+    public void keep(final Path page) throws IOException
+    {
+        var relativePage = register(page);
+        var existing = outputRoot.resolve(relativePage);
+        var target = targetRoot.resolve(relativePage);
+
+        if (!existing.equals(target))
+        {
+            link(existing, target);
+        }
+    }
+
+    /**
+     * Completes the run. A direct output removes all files which were not written or kept by this run, a staged output
+     * replaces the output directory with the staging directory.
+     *
+     * @throws IOException when the output directory could not be updated
+     */
+    public void commit() throws IOException
+    {
+        if (outputRoot.equals(targetRoot))
+        {
+            deleteOrphans();
+        }
+        else
+        {
+            swap();
+        }
+
+        committed = true;
+    }
+
+    /**
+     * Removes the staging directory of a run which was not committed, unless the previous output could not be restored
+     * after a failed commit, in which case it holds the only complete copy of the new pages.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (!committed && !keepStaging && !outputRoot.equals(targetRoot))
+        {
+            FileUtils.deleteDirectory(targetRoot.toFile());
+        }
+    }
+
+    private Path register(final Path page)
+    {
+        var relativePage = outputRoot.relativize(page.toAbsolutePath().normalize());
+        pages.add(relativePage);
+        return relativePage;
+    }
+
+    private void deleteOrphans() throws IOException
+    {
+        if (!Files.isDirectory(outputRoot))
+        {
+            return;
+        }
+
+        Files.walkFileTree(outputRoot, new SimpleFileVisitor<>()
+        {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException
+            {
+                if (!pages.contains(outputRoot.relativize(file)))
+                {
+                    Files.delete(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException
+            {
+                if (exc != null)
+                {
+                    throw exc;
+                }
+
+                if (!dir.equals(outputRoot))
+                {
+                    try (var entries = Files.list(dir))
+                    {
+                        if (entries.findAny().isEmpty())
+                        {
+                            Files.delete(dir);
+                        }
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void swap() throws IOException
+    {
+        var previous = outputRoot.resolveSibling(outputRoot.getFileName() + PREVIOUS_SUFFIX);
+        FileUtils.deleteDirectory(previous.toFile());
+
+        var hasPreviousOutput = Files.exists(outputRoot);
+        if (hasPreviousOutput)
+        {
+            move(outputRoot, previous);
+        }
+
+        try
+        {
+            move(targetRoot, outputRoot);
+        }
+        catch (IOException e)
+        {
+            if (hasPreviousOutput)
+            {
+                try
+                {
+                    move(previous, outputRoot);
+                }
+                catch (IOException restoreException)
+                {
+                    keepStaging = true;
+                    e.addSuppressed(new IOException("The previous output was left in %s and the new output in %s".formatted(previous, targetRoot), restoreException));
+                }
+            }
+            throw e;
+        }
+
+        FileUtils.deleteDirectory(previous.toFile());
+    }
+
+    private static void move(final Path source, final Path target) throws IOException
+    {
+        try
+        {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException e)
+        {
+            Files.move(source, target);
+        }
+    }
+
+    private static void link(final Path existing, final Path target) throws IOException
+    {
+        Files.createDirectories(target.getParent());
+        try
+        {
+            Files.createLink(target, existing);
+        }
+        catch (UnsupportedOperationException | IOException e)
+        {
+            Files.copy(existing, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+        }
+    }
+
+    @FunctionalInterface
+    private interface StreamWriter
+    {
+        void writeTo(OutputStream stream) throws IOException;
+    }
+
+    /**
+     * Writes the contents of a single page.
+     */
+    @FunctionalInterface
+    public interface PageWriter
+    {
+        void writeTo(Writer writer) throws IOException;
+    }
+}
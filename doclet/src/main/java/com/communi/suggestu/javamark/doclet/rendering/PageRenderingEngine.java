@@ -0,0 +1,133 @@
+package com.communi.suggestu.javamark.doclet.rendering;
+
+import com.communi.suggestu.javamark.doclet.builders.FileBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders the pages of a run in two phases.
+ * <p>
+ * The javac model, {@code Utils} and the {@code HtmlConfiguration} are not thread-safe, so pages are populated on the
+ * calling doclet thread, which turns them into a snapshot of plain content. The snapshot is then serialized and written
+ * by a pool of worker threads, while the doclet thread continues with the next page. Everything which reads the model
+ * while populating, like the caches of the builders and the page fingerprints, is therefore only used on the doclet
+ * thread and needs no synchronization.
+ * With a single thread everything happens on the calling thread, exactly like a plain sequential loop.
+ */
+public class PageRenderingEngine implements AutoCloseable
+{
+    /**
+     * The amount of snapshots per worker which may wait to be written before the doclet thread is throttled.
+     */
+    private static final int PENDING_PAGES_PER_THREAD = 4;
+
+    private final PageOutput      output;
+    private final ExecutorService executor;
+    private final Semaphore       pendingPages;
+    private final List<Future<?>> results = new ArrayList<>();
+
+    public PageRenderingEngine(final int threads, final PageOutput output)
+    {
+        this.output = output;
+        if (threads <= 1)
+        {
+            this.executor = null;
+            this.pendingPages = null;
+            return;
+        }
+
+        var threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            var thread = new Thread(runnable, "javamark-page-writer-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pendingPages = new Semaphore(threads * PENDING_PAGES_PER_THREAD);
+    }
+
+    /**
+     * Writes the given, already populated, page into the output.
+     *
+     * @param page the page to write
+     * @throws IOException when the page is written directly and writing fails
+     */
+    public void submit(final FileBuilder page) throws IOException
+    {
+        if (executor == null)
+        {
+            page.build(output);
+            return;
+        }
+
+        pendingPages.acquireUninterruptibly();
+        results.add(executor.submit(() -> {
+            try
+            {
+                page.build(output);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+            finally
+            {
+                pendingPages.release();
+            }
+        }));
+    }
+
+    /**
+     * Waits for all submitted pages to be written.
+     *
+     * @throws IOException when any of the pages could not be written
+     */
+    public void awaitCompletion() throws IOException
+    {
+        try
+        {
+            for (final Future<?> result : results)
+            {
+                result.get();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for pages to be written", e);
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof UncheckedIOException ioException)
+            {
+                throw ioException.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException)
+            {
+                throw runtimeException;
+            }
+            throw new IOException(e.getCause());
+        }
+        finally
+        {
+            results.clear();
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        if (executor != null)
+        {
+            executor.shutdownNow();
+        }
+    }
+}
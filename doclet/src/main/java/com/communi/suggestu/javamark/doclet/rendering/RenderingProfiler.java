@@ -0,0 +1,310 @@
+package com.communi.suggestu.javamark.doclet.rendering;
+
+import com.communi.suggestu.javamark.doclet.builders.FileBuilder;
+import com.communi.suggestu.javamark.doclet.utils.JsonUtils;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Records the wall time and the allocated bytes of the phases of a run, and of every page which is rendered.
+ * <p>
+ * A page is measured twice: while it is populated on the doclet thread, and while it is written on whichever thread
+ * writes it. Allocations are measured per thread, so both measurements only contain the work of that page.
+ * A disabled profiler records nothing, and its measurements do not even read the clock.
+ */
+public class RenderingProfiler
+{
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    private final boolean                  enabled;
+    private final List<Measurement>        phases = new ArrayList<>();
+    private final ConcurrentLinkedQueue<PageMeasurement> pages = new ConcurrentLinkedQueue<>();
+
+    public RenderingProfiler(final boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Starts measuring a phase of the run, which ends when the returned measurement is closed.
+     * Phases are only started and closed on the doclet thread.
+     *
+     * @param name the name of the phase
+     * @return the running measurement
+     */
+    public Measurement phase(final String name)
+    {
+        var measurement = new Measurement(name, enabled);
+        if (enabled)
+        {
+            phases.add(measurement);
+        }
+        return measurement;
+    }
+
+    /**
+     * Starts measuring the population of a page, which ends when {@link PageMeasurement#populated(FileBuilder)} is called.
+     *
+     * @param page    the page, relative to the output directory
+     * @param kind    the kind of page, for example {@code type} or {@code package}
+     * @param element the qualified name of the documented element
+     * @return the running measurement
+     */
+    public PageMeasurement page(final String page, final String kind, final String element)
+    {
+        var measurement = new PageMeasurement(page, kind, element, enabled);
+        if (enabled)
+        {
+            pages.add(measurement);
+        }
+        return measurement;
+    }
+
+    /**
+     * {@return the human readable summary of the phases and pages}
+     *
+     * @param top the amount of slowest pages to list
+     */
+    public String summary(final int top)
+    {
+        var summary = new StringBuilder("JavaMark rendering profile:\n");
+        for (final Measurement phase : phases)
+        {
+            summary.append(String.format(Locale.ROOT, "  %-24s %10.1f ms %12s%n", phase.name, phase.wallMillis(), formatBytes(phase.allocatedBytes)));
+        }
+
+        for (final String kind : List.of("type", "package"))
+        {
+            var ofKind = pages.stream().filter(page -> page.kind.equals(kind)).toList();
+            if (ofKind.isEmpty())
+            {
+                continue;
+            }
+
+            summary.append(String.format(Locale.ROOT, "  %-24s %10.1f ms %12s  (%d pages, populate %.1f ms, write %.1f ms)%n",
+                kind + " pages",
+                ofKind.stream().mapToDouble(PageMeasurement::totalMillis).sum(),
+                formatBytes(ofKind.stream().mapToLong(PageMeasurement::allocatedBytes).sum()),
+                ofKind.size(),
+                ofKind.stream().mapToDouble(page -> page.populate.wallMillis()).sum(),
+                ofKind.stream().mapToDouble(page -> page.write.wallMillis()).sum()));
+        }
+
+        var slowest = slowestPages(top);
+        if (!slowest.isEmpty())
+        {
+            summary.append("  Slowest pages:\n");
+            for (final PageMeasurement page : slowest)
+            {
+                summary.append(String.format(Locale.ROOT, "    %10.1f ms %12s  %s%n", page.totalMillis(), formatBytes(page.allocatedBytes()), page.element));
+            }
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Writes the phases and the slowest pages as JSON.
+     *
+     * @param report the file to write
+     * @param top    the amount of slowest pages to list
+     * @throws IOException when the report could not be written
+     */
+    public void writeReport(final Path report, final int top) throws IOException
+    {
+        var json = new StringBuilder("{\n  \"phases\": [");
+        for (int i = 0; i < phases.size(); i++)
+        {
+            var phase = phases.get(i);
+            json.append(i == 0 ? "\n" : ",\n")
+                .append("    {\"name\": ").append(JsonUtils.quote(phase.name))
+                .append(", \"wallMillis\": ").append(formatMillis(phase.wallMillis()))
+                .append(", \"allocatedBytes\": ").append(phase.allocatedBytes)
+                .append('}');
+        }
+        json.append("\n  ],\n  \"pageCount\": ").append(pages.size()).append(",\n  \"slowestPages\": [");
+
+        var slowest = slowestPages(top);
+        for (int i = 0; i < slowest.size(); i++)
+        {
+            var page = slowest.get(i);
+            json.append(i == 0 ? "\n" : ",\n")
+                .append("    {\"element\": ").append(JsonUtils.quote(page.element))
+                .append(", \"kind\": ").append(JsonUtils.quote(page.kind))
+                .append(", \"page\": ").append(JsonUtils.quote(page.page))
+                .append(", \"wallMillis\": ").append(formatMillis(page.totalMillis()))
+                .append(", \"populateMillis\": ").append(formatMillis(page.populate.wallMillis()))
+                .append(", \"writeMillis\": ").append(formatMillis(page.write.wallMillis()))
+                .append(", \"allocatedBytes\": ").append(page.allocatedBytes())
+                .append('}');
+        }
+        json.append("\n  ]\n}\n");
+
+        if (report.toAbsolutePath().getParent() != null)
+        {
+            Files.createDirectories(report.toAbsolutePath().getParent());
+        }
+        Files.writeString(report, json);
+    }
+
+    private List<PageMeasurement> slowestPages(final int top)
+    {
+        return pages.stream()
+            .sorted(Comparator.comparingDouble(PageMeasurement::totalMillis).reversed().thenComparing(page -> page.page))
+            .limit(top)
+            .toList();
+    }
+
+    private static String formatMillis(final double millis)
+    {
+        return String.format(Locale.ROOT, "%.3f", millis);
+    }
+
+    private static String formatBytes(final long bytes)
+    {
+        if (bytes < 0)
+        {
+            return "n/a";
+        }
+        return String.format(Locale.ROOT, "%.1f MiB", bytes / (1024.0 * 1024.0));
+    }
+
+    private static com.sun.management.ThreadMXBean threads()
+    {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+            && threads.isThreadAllocatedMemorySupported()
+            && threads.isThreadAllocatedMemoryEnabled())
+        {
+            return threads;
+        }
+        return null;
+    }
+
+    private static long currentThreadAllocatedBytes()
+    {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * The wall time and allocated bytes of a piece of work on a single thread.
+     */
+    public static final class Measurement implements AutoCloseable
+    {
+        private final String  name;
+        private final boolean enabled;
+
+        private long startNanos;
+        private long startBytes;
+        private long wallNanos      = 0;
+        private long allocatedBytes = 0;
+
+        private Measurement(final String name, final boolean enabled)
+        {
+            this.name = name;
+            this.enabled = enabled;
+            start();
+        }
+
+        private void start()
+        {
+            if (enabled)
+            {
+                startBytes = currentThreadAllocatedBytes();
+                startNanos = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            if (enabled)
+            {
+                wallNanos = System.nanoTime() - startNanos;
+                allocatedBytes = startBytes < 0 ? -1 : currentThreadAllocatedBytes() - startBytes;
+            }
+        }
+
+        private double wallMillis()
+        {
+            return wallNanos / 1_000_000.0;
+        }
+    }
+
+    /**
+     * The measurements of a single page.
+     */
+    public static final class PageMeasurement
+    {
+        private final String      page;
+        private final String      kind;
+        private final String      element;
+        private final boolean     enabled;
+        private final Measurement populate;
+        private final Measurement write;
+
+        private PageMeasurement(final String page, final String kind, final String element, final boolean enabled)
+        {
+            this.page = page;
+            this.kind = kind;
+            this.element = element;
+            this.enabled = enabled;
+            this.populate = new Measurement(page, enabled);
+            this.write = new Measurement(page, false);
+        }
+
+        /**
+         * Ends the population of the page.
+         *
+         * @param builder the populated page
+         * @return the page, which measures its writing when it is built
+         */
+        public FileBuilder populated(final FileBuilder builder)
+        {
+            populate.close();
+            if (!enabled)
+            {
+                return builder;
+            }
+
+            return output -> {
+                var measurement = new Measurement(page, true);
+                try
+                {
+                    builder.build(output);
+                }
+                finally
+                {
+                    measurement.close();
+                    write.wallNanos = measurement.wallNanos;
+                    write.allocatedBytes = measurement.allocatedBytes;
+                }
+            };
+        }
+
+        private double totalMillis()
+        {
+            return populate.wallMillis() + write.wallMillis();
+        }
+
+        private long allocatedBytes()
+        {
+            if (populate.allocatedBytes < 0 || write.allocatedBytes < 0)
+            {
+                return -1;
+            }
+            return populate.allocatedBytes + write.allocatedBytes;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.communi.suggestu.javamark.doclet.utils;
+
+import javax.lang.model.element.TypeElement;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * The pages of types which were documented by other JavaMark runs, similar to the element lists of javadoc.
+ * <p>
+ * Every run writes an element list with the qualified name and page of each documented type to the root of its output.
+ * A later run which is given that list, together with the location its pages are published at, links references to
+ * those types instead of printing their names, without documenting them again.
+ */
+public class ExternalLinks
+{
+    public static final String FILE_NAME = "javamark-element-list";
+
+    private static final String HEADER = "# JavaMark element list";
+
+    private static final ExternalLinks NONE = new ExternalLinks(Map.of(), "");
+
+    /**
+     * The published location and page of every external type, by qualified name.
+     */
+    private final Map<String, Link> links;
+    private final String            checksum;
+
+    private ExternalLinks(final Map<String, Link> links, final String checksum)
+    {
+        this.links = links;
+        this.checksum = checksum;
+    }
+
+    /**
+     * {@return the external links of a run which is not given any element lists}
+     */
+    public static ExternalLinks none()
+    {
+        return NONE;
+    }
+
+    /**
+     * Reads the given element lists. When a type is listed more than once, the first list wins.
+     *
+     * @param manifests the element lists, and the locations their pages are published at
+     * @return the external links
+     * @throws IOException when a list could not be read, or is malformed
+     */
+    public static ExternalLinks read(final List<Manifest> manifests) throws IOException
+    {
+        if (manifests.isEmpty())
+        {
+            return NONE;
+        }
+
+        var links = new HashMap<String, Link>();
+        var digest = newDigest();
+        for (final Manifest manifest : manifests)
+        {
+            var file = Files.isDirectory(manifest.file()) ? manifest.file().resolve(FILE_NAME) : manifest.file();
+            var base = manifest.base().endsWith("/") ? manifest.base() : manifest.base() + "/";
+            var lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            digest.update((base + "\n").getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < lines.size(); i++)
+            {
+                var line = lines.get(i);
+                digest.update((line + "\n").getBytes(StandardCharsets.UTF_8));
+                if (line.isBlank() || line.startsWith("#"))
+                {
+                    continue;
+                }
+
+                var separator = line.indexOf('\t');
+                if (separator <= 0 || separator == line.length() - 1)
+                {
+                    throw new IOException("Malformed line %d of the element list %s: %s".formatted(i + 1, file, line));
+                }
+                links.putIfAbsent(line.substring(0, separator), new Link(base, line.substring(separator + 1)));
+            }
+        }
+        return new ExternalLinks(links, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * {@return the element list of the given pages}
+     *
+     * @param pages the page of every documented type, relative to the output root and without extension, by qualified name
+     */
+    public static String format(final SortedMap<String, String> pages)
+    {
+        var list = new StringBuilder(HEADER).append('\n');
+        pages.forEach((name, page) -> list.append(name).append('\t').append(page).append('\n'));
+        return list.toString();
+    }
+
+    /**
+     * {@return true if the given type has a page in one of the element lists}
+     */
+    public boolean contains(final TypeElement type)
+    {
+        return links.containsKey(type.getQualifiedName().toString());
+    }
+
+    /**
+     * Generates the link from a page in the given package to the external page of a type.
+     * Relative locations are resolved against the output root, absolute ones and URLs are used as they are.
+     *
+     * @param sourcePackage the package hierarchy of the linking page
+     * @param target        the linked type
+     * @return the link, or null if the type is not in any element list
+     */
+    public String getRelativeLink(final List<String> sourcePackage, final TypeElement target)
+    {
+        var link = links.get(target.getQualifiedName().toString());
+        if (link == null)
+        {
+            return null;
+        }
+
+        if (link.base().startsWith("/") || link.base().contains("://"))
+        {
+            return link.base() + link.page();
+        }
+        return "../".repeat(sourcePackage.size()) + link.base() + link.page();
+    }
+
+    /**
+     * {@return the checksum of the element lists and their locations, which changes when any of the links changes}
+     */
+    public String getChecksum()
+    {
+        return checksum;
+    }
+
+    private static MessageDigest newDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * An element list of another run.
+     *
+     * @param base the location the pages of that run are published at, a URL or a path relative to the output root
+     * @param file the element list, or the output directory of that run
+     */
+    public record Manifest(String base, Path file)
+    {
+    }
+
+    private record Link(String base, String page)
+    {
+    }
+}
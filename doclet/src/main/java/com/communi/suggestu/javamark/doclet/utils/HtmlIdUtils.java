@@ -3,6 +3,8 @@ package com.communi.suggestu.javamark.doclet.utils;
 import jdk.javadoc.internal.html.HtmlId;
 import jdk.javadoc.internal.doclets.toolkit.util.Utils;
 
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
@@ -69,4 +71,26 @@ public class HtmlIdUtils
         return HtmlId.of(typeElement.getQualifiedName() + "." + member.getSimpleName());
     }
 
+    /**
+     * Returns the id of the section which documents a field, enum constant,
+     * method, constructor or annotation interface element on the page of
+     * the given class or interface, as created by the member writers.
+     *
+     * @param typeElement the class or interface whose page documents the member
+     * @param member      the element
+     *
+     * @return the id
+     */
+    public static HtmlId forDocumentedMember(Utils utils, TypeElement typeElement, Element member) {
+        if (member instanceof VariableElement variable) {
+            return forMember(variable);
+        }
+
+        var executable = (ExecutableElement) member;
+        if (typeElement.getKind() == ElementKind.ANNOTATION_TYPE) {
+            return forMember(utils, typeElement, executable);
+        }
+        return forMember(utils, executable);
+    }
+
 }
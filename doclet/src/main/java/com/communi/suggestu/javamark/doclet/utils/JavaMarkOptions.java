@@ -0,0 +1,474 @@
+package com.communi.suggestu.javamark.doclet.utils;
+
+import jdk.javadoc.doclet.Doclet;
+
+import java.io.File;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Storage for the options which are specific to JavaMark, and are not understood by the standard doclet.
+ */
+public class JavaMarkOptions
+{
+    /**
+     * The options which only change how a run is executed, and not the pages it renders.
+     */
+    private static final Set<String> EXECUTION_OPTIONS = Set.of("--render-threads", "--profile", "--profile-top", "--staged-output", "--write-model");
+
+    /**
+     * Argument for command-line option {@code --markdown-only}.
+     * True if the HTML pages of the inner doclet should not be generated.
+     */
+    private boolean markdownOnly = false;
+
+    /**
+     * Argument for command-line option {@code --render-threads}.
+     * The amount of threads which serialize and write the rendered pages.
+     */
+    private int renderThreads = 1;
+
+    /**
+     * Argument for command-line option {@code --incremental}.
+     * True if pages whose inputs did not change since the last run should not be rendered again.
+     */
+    private boolean incremental = false;
+
+    /**
+     * Argument for command-line option {@code --staged-output}.
+     * True if the pages should be written into a staging directory which replaces the output directory at the end of the run.
+     */
+    private boolean stagedOutput = false;
+
+    /**
+     * Argument for command-line option {@code --profile}.
+     * The file into which the JSON report of the phase and page timings is written, or null if the run is not profiled.
+     */
+    private Path profileReport = null;
+
+    /**
+     * Argument for command-line option {@code --profile-top}.
+     * The amount of slowest pages which are listed in the profile.
+     */
+    private int profileTop = 20;
+
+    /**
+     * Argument for command-line option {@code --constants-per-package}.
+     */
+    private boolean constantsPerPackage = false;
+
+    /**
+     * Argument for command-line option {@code --shard}.
+     */
+    private int shardIndex = 0;
+    private int shardCount = 1;
+
+    /**
+     * Argument for command-line option {@code --shard-packages}.
+     */
+    private Set<String> shardPackages = Set.of();
+
+    /**
+     * Argument for command-line option {@code --merge-shards}.
+     */
+    private List<Path> mergedShards = List.of();
+
+    /**
+     * Argument for command-line option {@code --link-manifest}.
+     */
+    private final List<ExternalLinks.Manifest> linkManifests = new ArrayList<>();
+
+    /**
+     * Argument for command-line option {@code --write-model}.
+     */
+    private Path modelFile = null;
+
+    /**
+     * Argument for command-line option {@code --search-index}.
+     */
+    private SearchIndexSharding searchIndexSharding = null;
+
+    /**
+     * The options which change the rendered pages, including the ones of the standard doclet, in the order they were processed.
+     */
+    private final List<String> outputOptions = new ArrayList<>();
+
+    public Set<? extends Option> getSupportedOptions()
+    {
+        return Set.of(
+            new Option("--markdown-only", "", "Only initializes the standard doclet and skips writing its HTML pages")
+            {
+                @Override
+                public boolean process(final String option, final List<String> arguments)
+                {
+                    markdownOnly = true;
+                    return true;
+                }
+            },
+            new Option("--render-threads", 1, "<count>", "The amount of threads used to write the rendered pages")
+            {
+                @Override
+                public boolean process(final String option, final List<String> arguments)
+                {
+                    try
+                    {
+                        renderThreads = Integer.parseInt(arguments.getFirst());
+                    }
+                    catch (NumberFormatException e)
+                    {
+                        return false;
+                    }
+                    return renderThreads > 0;
+                }
+            },
+            new Option("--incremental", "", "Only renders the pages whose inputs changed since the last run")
+            {
+                @Override
+                public boolean process(final String option, final List<String> arguments)
+                {
+                    incremental = true;
+                    return true;
+                }
+            },
+            new Option("--staged-output", "", "Writes into a staging directory which replaces the output directory once the run succeeded")
+            {
+                @Override
+                public boolean process(final String option, final List<String> arguments)
+                {
+                    stagedOutput = true;
+                    return true;
+                }
+            },
+            new Option("--profile", 1, "<file>", "Records the time and allocations of every phase and page, and writes a JSON report to the given file")
+            {
+                @Override
+                public boolean process(final String option, final List<String> arguments)
+                {
+                    try
+                    {
+                        profileReport = Path.of(arguments.getFirst());
+                    }
+                    catch (InvalidPathException e)
+                    {
+                        return false;
+                    }
+                    return true;
+                }
+            },
+            new Option("--profile-top", 1, "<count>", "The amount of slowest pages listed by --profile")
+            {
+                @Override
+                public boolean process(final String option, final List<String> arguments)
+                {
+                    try
+                    {
+                        profileTop = Integer.parseInt(arguments.getFirst());
+                    }
+                    catch (NumberFormatException e)
+                    {
+                        return false;
+                    }
+                    return profileTop >= 0;
+                }
+            },
+            new Option("--constants-per-package", "", "Writes the constant values of every package to a page of that package, and only lists the packages on the constants page")
+            {
+                @Override
+                public boolean process(final String option, final List<String> arguments)
+                {
+                    constantsPerPackage = true;
+                    return true;
+                }
+            },
+            new Option("--shard", 1, "<index>/<count>", "Only renders the pages of the packages assigned to the given shard, counted from zero")
+            {
+                @Override
+                public boolean process(final String option, final List<String> arguments)
+                {
+                    var shard = arguments.getFirst().split("/", -1);
+                    if (shard.length != 2)
+                    {
+                        return false;
+                    }
+
+                    try
+                    {
+                        shardIndex = Integer.parseInt(shard[0].trim());
+                        shardCount = Integer.parseInt(shard[1].trim());
+                    }
+                    catch (NumberFormatException e)
+                    {
+                        return false;
+                    }
+                    return shardCount > 0 && shardIndex >= 0 && shardIndex < shardCount;
+                }
+            },
+            new Option("--shard-packages", 1, "<packages>", "Only renders the pages of the given comma separated packages")
+            {
+                @Override
+                public boolean process(final String option, final List<String> arguments)
+                {
+                    shardPackages = Arrays.stream(arguments.getFirst().split(","))
+                        .map(String::trim)
+                        .filter(name -> !name.isEmpty())
+                        .collect(Collectors.toSet());
+                    return !shardPackages.isEmpty();
+                }
+            },
+            new Option("--merge-shards", 1, "<directories>", "Combines the output directories of sharded runs, and renders the pages which cover all packages")
+            {
+                @Override
+                public boolean process(final String option, final List<String> arguments)
+                {
+                    try
+                    {
+                        mergedShards = Arrays.stream(arguments.getFirst().split(File.pathSeparator))
+                            .filter(directory -> !directory.isBlank())
+                            .map(Path::of)
+                            .toList();
+                    }
+                    catch (InvalidPathException e)
+                    {
+                        return false;
+                    }
+                    return !mergedShards.isEmpty();
+                }
+            },
+            new Option("--link-manifest", 2, "<url> <element-list>", "Links to the pages of the types in the element list of another JavaMark run, which are published at the given location")
+            {
+                @Override
+                public boolean process(final String option, final List<String> arguments)
+                {
+                    try
+                    {
+                        linkManifests.add(new ExternalLinks.Manifest(arguments.get(0), Path.of(arguments.get(1))));
+                    }
+                    catch (InvalidPathException e)
+                    {
+                        return false;
+                    }
+                    return true;
+                }
+            },
+            new Option("--write-model", 1, "<file>", "Saves the documentation model of all pages to the given file, from which the pages can be rendered again without javadoc")
+            {
+                @Override
+                public boolean process(final String option, final List<String> arguments)
+                {
+                    try
+                    {
+                        modelFile = Path.of(arguments.getFirst());
+                    }
+                    catch (InvalidPathException e)
+                    {
+                        return false;
+                    }
+                    return true;
+                }
+            },
+            new Option("--search-index", 1, "<package|prefix>", "Writes a search index of all packages, types and members, split into a shard per package or per first character of the names")
+            {
+                @Override
+                public boolean process(final String option, final List<String> arguments)
+                {
+                    try
+                    {
+                        searchIndexSharding = SearchIndexSharding.valueOf(arguments.getFirst().trim().toUpperCase(Locale.ROOT));
+                    }
+                    catch (IllegalArgumentException e)
+                    {
+                        return false;
+                    }
+                    return true;
+                }
+            }
+        );
+    }
+
+    /**
+     * Wraps the given options so that their use is recorded in {@link #getOutputOptions()}.
+     *
+     * @param options the options to record
+     * @return the recording options
+     */
+    public Set<Doclet.Option> recording(final Set<? extends Doclet.Option> options)
+    {
+        return options.stream()
+            .map(this::recording)
+            .collect(Collectors.toSet());
+    }
+
+    private Doclet.Option recording(final Doclet.Option option)
+    {
+        return new Doclet.Option()
+        {
+            @Override
+            public int getArgumentCount()
+            {
+                return option.getArgumentCount();
+            }
+
+            @Override
+            public String getDescription()
+            {
+                return option.getDescription();
+            }
+
+            @Override
+            public Kind getKind()
+            {
+                return option.getKind();
+            }
+
+            @Override
+            public List<String> getNames()
+            {
+                return option.getNames();
+            }
+
+            @Override
+            public String getParameters()
+            {
+                return option.getParameters();
+            }
+
+            @Override
+            public boolean process(final String name, final List<String> arguments)
+            {
+                if (!EXECUTION_OPTIONS.contains(name))
+                {
+                    outputOptions.add(name + " " + String.join(" ", arguments));
+                }
+                return option.process(name, arguments);
+            }
+        };
+    }
+
+    /**
+     * Argument for command-line option {@code --markdown-only}.
+     * True if the HTML pages of the inner doclet should not be generated.
+     * This is implied by {@code --incremental}, as the output directory is then no longer cleared,
+     * and by {@code --staged-output}, as the HTML pages would otherwise be written into the previous output.
+     */
+    public boolean markdownOnly()
+    {
+        return markdownOnly || incremental || stagedOutput;
+    }
+
+    /**
+     * Argument for command-line option {@code --render-threads}.
+     * The amount of threads which serialize and write the rendered pages.
+     */
+    public int renderThreads()
+    {
+        return renderThreads;
+    }
+
+    /**
+     * Argument for command-line option {@code --incremental}.
+     * True if pages whose inputs did not change since the last run should not be rendered again.
+     */
+    public boolean incremental()
+    {
+        return incremental;
+    }
+
+    /**
+     * Argument for command-line option {@code --staged-output}.
+     * True if the pages should be written into a staging directory which replaces the output directory at the end of the run.
+     */
+    public boolean stagedOutput()
+    {
+        return stagedOutput;
+    }
+
+    /**
+     * Argument for command-line option {@code --profile}.
+     * The file into which the JSON report of the phase and page timings is written, or null if the run is not profiled.
+     */
+    public Path profileReport()
+    {
+        return profileReport;
+    }
+
+    /**
+     * Argument for command-line option {@code --profile-top}.
+     * The amount of slowest pages which are listed in the profile.
+     */
+    public int profileTop()
+    {
+        return profileTop;
+    }
+
+    /**
+     * Argument for command-line option {@code --constants-per-package}.
+     * True if the constant values are written to a page per package instead of a single page.
+     */
+    public boolean constantsPerPackage()
+    {
+        return constantsPerPackage;
+    }
+
+    /**
+     * Arguments for command-line options {@code --shard} and {@code --shard-packages}.
+     * The packages whose pages are rendered by this run, all of them unless either option is given.
+     */
+    public PageShard shard()
+    {
+        if (shardCount == 1 && shardPackages.isEmpty())
+        {
+            return PageShard.all();
+        }
+        return PageShard.of(shardIndex, shardCount, shardPackages);
+    }
+
+    /**
+     * Argument for command-line option {@code --merge-shards}.
+     * The output directories of the sharded runs which are combined by this run, empty if this is not a merge run.
+     */
+    public List<Path> mergedShards()
+    {
+        return mergedShards;
+    }
+
+    /**
+     * Argument for command-line option {@code --link-manifest}.
+     * The element lists of other runs whose types are linked, empty if no external types are linked.
+     */
+    public List<ExternalLinks.Manifest> linkManifests()
+    {
+        return linkManifests;
+    }
+
+    /**
+     * Argument for command-line option {@code --write-model}.
+     * The file into which the documentation model is saved, or null if the model is not saved.
+     */
+    public Path modelFile()
+    {
+        return modelFile;
+    }
+
+    /**
+     * Argument for command-line option {@code --search-index}.
+     * How the search index is split into shards, or null if no search index is written.
+     */
+    public SearchIndexSharding searchIndexSharding()
+    {
+        return searchIndexSharding;
+    }
+
+    /**
+     * {@return the options which change the rendered pages, including the ones of the standard doclet, in the order they were processed}
+     */
+    public List<String> getOutputOptions()
+    {
+        return outputOptions;
+    }
+}
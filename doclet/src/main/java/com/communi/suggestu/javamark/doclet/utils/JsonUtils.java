@@ -0,0 +1,37 @@
+package com.communi.suggestu.javamark.doclet.utils;
+
+import java.util.Locale;
+
+public class JsonUtils
+{
+    /**
+     * {@return the given value as a JSON string literal}
+     */
+    public static String quote(final String value)
+    {
+        var quoted = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++)
+        {
+            var c = value.charAt(i);
+            switch (c)
+            {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20)
+                    {
+                        quoted.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    }
+                    else
+                    {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
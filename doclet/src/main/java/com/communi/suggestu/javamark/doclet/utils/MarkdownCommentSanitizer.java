@@ -1,7 +1,8 @@
 package com.communi.suggestu.javamark.doclet.utils;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 
 public final class MarkdownCommentSanitizer
 {
@@ -10,27 +11,21 @@ public final class MarkdownCommentSanitizer
         throw new IllegalStateException("Can not instantiate utility class");
     }
 
+    /**
+     * Removes the blank lines outside of fenced code blocks, see {@link MarkdownCommentSanitizingWriter}.
+     */
     public static String stripBlankLinesInsideDivBlocks(final String input)
     {
-        final List<String> outputLines = new ArrayList<>();
-        boolean inFencedCodeBlock = false;
-
-        final String[] lines = input.split("\\n", -1);
-        for (final String line : lines)
+        final StringWriter output = new StringWriter(input.length());
+        try (var writer = new MarkdownCommentSanitizingWriter(output, "\n"))
         {
-            final String trimmed = line.trim();
-            if (trimmed.startsWith("```") || trimmed.startsWith("~~~"))
-            {
-                inFencedCodeBlock = !inFencedCodeBlock;
-            }
-
-            if (!(line.isBlank() && !inFencedCodeBlock))
-            {
-                outputLines.add(line);
-            }
+            writer.write(input);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
         }
 
-        return String.join("\n", outputLines);
+        return output.toString();
     }
 }
-
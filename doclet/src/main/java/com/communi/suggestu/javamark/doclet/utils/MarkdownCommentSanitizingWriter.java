@@ -0,0 +1,182 @@
+package com.communi.suggestu.javamark.doclet.utils;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Removes blank lines from rendered comment content while it is written, outside of fenced code blocks.
+ * <p>
+ * Blank lines end HTML blocks, such as the divs of the standard doclet, in Markdown. The filter reads the content one
+ * character at a time and only holds back the leading whitespace of the current line, until it knows whether the line
+ * is blank. The output is the same as {@link MarkdownCommentSanitizer#stripBlankLinesInsideDivBlocks(String)}: the kept
+ * lines are joined by the newline, so a trailing newline is dropped along with the blank line after it.
+ */
+public class MarkdownCommentSanitizingWriter extends FilterWriter
+{
+    private static final int FENCE_LENGTH = 3;
+    private static final int FENCE_DECIDED = -1;
+
+    private final String        newline;
+    private final StringBuilder leadingWhitespace = new StringBuilder();
+    private final char[]        chunk             = new char[1024];
+
+    private boolean inFencedCodeBlock = false;
+    private boolean wroteLine         = false;
+    private boolean endsWithNewline   = false;
+    private boolean lineKept          = false;
+    private int     fenceProgress     = 0;
+    private char    fenceChar;
+
+    /**
+     * @param out     the writer to write the kept lines to
+     * @param newline the newline to join the kept lines with
+     */
+    public MarkdownCommentSanitizingWriter(final Writer out, final String newline)
+    {
+        super(out);
+        this.newline = newline;
+    }
+
+    /**
+     * {@return true if any line was kept, and so written to the underlying writer}
+     */
+    public boolean hasOutput()
+    {
+        return wroteLine;
+    }
+
+    /**
+     * {@return true if the output so far ends with the newline, which happens when the last kept line is empty}
+     */
+    public boolean endsWithNewline()
+    {
+        return endsWithNewline;
+    }
+
+    @Override
+    public void write(final int c) throws IOException
+    {
+        chunk[0] = (char) c;
+        write(chunk, 0, 1);
+    }
+
+    @Override
+    public void write(final String str, final int off, final int len) throws IOException
+    {
+        for (int start = off; start < off + len; start += chunk.length)
+        {
+            var end = Math.min(off + len, start + chunk.length);
+            str.getChars(start, end, chunk, 0);
+            write(chunk, 0, end - start);
+        }
+    }
+
+    @Override
+    public void write(final char[] cbuf, final int off, final int len) throws IOException
+    {
+        var run = lineKept ? off : -1;
+        for (int i = off; i < off + len; i++)
+        {
+            var c = cbuf[i];
+            if (c == '\n')
+            {
+                writeRun(cbuf, run, i);
+                startLine();
+                run = lineKept ? i + 1 : -1;
+                continue;
+            }
+
+            trackFence(c);
+            if (lineKept)
+            {
+                continue;
+            }
+
+            if (Character.isWhitespace(c))
+            {
+                leadingWhitespace.append(c);
+                continue;
+            }
+
+            keepLine();
+            out.append(leadingWhitespace);
+            leadingWhitespace.setLength(0);
+            run = i;
+        }
+        writeRun(cbuf, run, off + len);
+    }
+
+    private void startLine() throws IOException
+    {
+        leadingWhitespace.setLength(0);
+        fenceProgress = 0;
+        lineKept = false;
+        if (inFencedCodeBlock)
+        {
+            keepLine();
+        }
+    }
+
+    private void keepLine() throws IOException
+    {
+        if (wroteLine)
+        {
+            out.write(newline);
+            endsWithNewline = true;
+        }
+        wroteLine = true;
+        lineKept = true;
+    }
+
+    private void writeRun(final char[] cbuf, final int start, final int end) throws IOException
+    {
+        if (start < 0 || start >= end)
+        {
+            return;
+        }
+        out.write(cbuf, start, end - start);
+        endsWithNewline = false;
+    }
+
+    /**
+     * Toggles the fenced code block when the line, without its leading control characters and spaces, starts with
+     * three backticks or tildes.
+     */
+    private void trackFence(final char c)
+    {
+        if (fenceProgress == FENCE_DECIDED)
+        {
+            return;
+        }
+
+        if (fenceProgress == 0)
+        {
+            if (c <= ' ')
+            {
+                return;
+            }
+
+            if (c == '`' || c == '~')
+            {
+                fenceChar = c;
+                fenceProgress = 1;
+            }
+            else
+            {
+                fenceProgress = FENCE_DECIDED;
+            }
+            return;
+        }
+
+        if (c == fenceChar && ++fenceProgress == FENCE_LENGTH)
+        {
+            inFencedCodeBlock = !inFencedCodeBlock;
+            fenceProgress = FENCE_DECIDED;
+        }
+        else if (c != fenceChar)
+        {
+            fenceProgress = FENCE_DECIDED;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.communi.suggestu.javamark.doclet.utils;
 
 import javax.lang.model.element.PackageElement;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -10,10 +12,14 @@ import java.util.Set;
  * Provides relative path links between packages, only for packages known to a given TypeUniverse.
  */
 public class PackageLinkProvider {
-    private final Set<PackageElement> knownPackages;
+    private final Set<String> knownPackageNames;
+    private final Map<String, Map<String, String>> relativeLinks = new HashMap<>();
 
     public PackageLinkProvider(Set<PackageElement> knownPackages) {
-        this.knownPackages = new HashSet<>(knownPackages);
+        this.knownPackageNames = new HashSet<>();
+        for (PackageElement known : knownPackages) {
+            knownPackageNames.add(known.getQualifiedName().toString());
+        }
     }
 
     /**
@@ -21,14 +27,22 @@ public class PackageLinkProvider {
      * The path is based on package hierarchy and ends with package-summary.md.
      */
     public String getRelativeLink(PackageElement sourcePackage, PackageElement targetPackage) {
-        if (!isKnown(sourcePackage) || !isKnown(targetPackage)) {
+        String sourceName = sourcePackage.getQualifiedName().toString();
+        String targetName = targetPackage.getQualifiedName().toString();
+        if (!knownPackageNames.contains(sourceName) || !knownPackageNames.contains(targetName)) {
             return null;
         }
-        if (sourcePackage.getQualifiedName().contentEquals(targetPackage.getQualifiedName())) {
+        if (sourceName.equals(targetName)) {
             return "index";
         }
-        List<String> sourceHierarchy = getPackageHierarchy(sourcePackage);
-        List<String> targetHierarchy = getPackageHierarchy(targetPackage);
+        return relativeLinks
+            .computeIfAbsent(sourceName, name -> new HashMap<>())
+            .computeIfAbsent(targetName, name -> buildRelativeLink(sourceName, targetName));
+    }
+
+    private String buildRelativeLink(String sourceName, String targetName) {
+        List<String> sourceHierarchy = getPackageHierarchy(sourceName);
+        List<String> targetHierarchy = getPackageHierarchy(targetName);
         int common = 0;
         while (common < sourceHierarchy.size() && common < targetHierarchy.size() && Objects.equals(sourceHierarchy.get(common), targetHierarchy.get(common))) {
             common++;
@@ -44,17 +58,8 @@ public class PackageLinkProvider {
         return rel.toString();
     }
 
-    private boolean isKnown(PackageElement pkg) {
-        for (PackageElement known : knownPackages) {
-            if (known.getQualifiedName().contentEquals(pkg.getQualifiedName())) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private List<String> getPackageHierarchy(PackageElement pkg) {
-        String[] parts = pkg.getQualifiedName().toString().split("\\.");
+    private List<String> getPackageHierarchy(String packageName) {
+        String[] parts = packageName.split("\\.");
         return java.util.Arrays.asList(parts);
     }
 }
@@ -0,0 +1,79 @@
+package com.communi.suggestu.javamark.doclet.utils;
+
+import javax.lang.model.element.PackageElement;
+import java.util.Set;
+
+/**
+ * The slice of the packages whose pages are rendered by a run.
+ * <p>
+ * Sharded runs still load all sources, so links into the packages of other shards resolve exactly as in a full run,
+ * but each run only renders the package and type pages of its own packages into its own output directory. A merge run
+ * then combines the output directories and renders the pages which cover all packages, like the constants page.
+ * <p>
+ * Packages are assigned to shards by the hash of their qualified name, which is stable across JVMs, so every run of
+ * a sharded build agrees on the assignment without coordination.
+ */
+public final class PageShard
+{
+    private static final PageShard ALL = new PageShard(0, 1, Set.of());
+
+    private final int         index;
+    private final int         count;
+    private final Set<String> packages;
+
+    private PageShard(final int index, final int count, final Set<String> packages)
+    {
+        this.index = index;
+        this.count = count;
+        this.packages = packages;
+    }
+
+    /**
+     * {@return the shard which renders all packages}
+     */
+    public static PageShard all()
+    {
+        return ALL;
+    }
+
+    /**
+     * @param index    the index of the shard, from zero
+     * @param count    the amount of shards
+     * @param packages the qualified names of the packages to render, or empty to render all packages of the shard
+     * @return the shard
+     */
+    public static PageShard of(final int index, final int count, final Set<String> packages)
+    {
+        if (count < 1 || index < 0 || index >= count)
+        {
+            throw new IllegalArgumentException("Invalid shard " + index + "/" + count);
+        }
+
+        return new PageShard(index, count, Set.copyOf(packages));
+    }
+
+    /**
+     * {@return true if this shard only renders a part of the packages}
+     */
+    public boolean isPartial()
+    {
+        return count > 1 || !packages.isEmpty();
+    }
+
+    /**
+     * {@return true if the pages of the given package, and of its types, are rendered by this shard}
+     *
+     * @param packageElement the package
+     */
+    public boolean includes(final PackageElement packageElement)
+    {
+        var name = packageElement.getQualifiedName().toString();
+        return (packages.isEmpty() || packages.contains(name)) && Math.floorMod(name.hashCode(), count) == index;
+    }
+
+    @Override
+    public String toString()
+    {
+        return packages.isEmpty() ? index + "/" + count : index + "/" + count + " " + packages;
+    }
+}
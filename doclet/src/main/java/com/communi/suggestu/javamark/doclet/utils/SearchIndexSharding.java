@@ -0,0 +1,17 @@
+package com.communi.suggestu.javamark.doclet.utils;
+
+/**
+ * How the entries of the search index are split into shards.
+ */
+public enum SearchIndexSharding
+{
+    /**
+     * One shard per package, which holds the package, its types and their members.
+     */
+    PACKAGE,
+    /**
+     * One shard per lower case first character of the entry names, so a query only needs the shard of its own
+     * first character.
+     */
+    PREFIX
+}
@@ -4,35 +4,72 @@ import jdk.javadoc.internal.doclets.formats.html.HtmlDocletWriter;
 import jdk.javadoc.internal.html.Content;
 
 import javax.lang.model.element.TypeElement;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 
 public class SignatureUtils
 {
+    private static final String TYPE_SIGNATURE_CLASS = "jdk.javadoc.internal.doclets.formats.html.Signatures$TypeSignature";
+
+    /**
+     * Creates a Signatures.TypeSignature and invokes its toContent() method, resolved once when this class is loaded.
+     * Null if the internals of the standard doclet could not be resolved, in which case {@link #LOOKUP_FAILURE} is set.
+     */
+    private static final MethodHandle            TYPE_SIGNATURE_TO_CONTENT;
+    private static final IllegalStateException   LOOKUP_FAILURE;
+
+    static {
+        MethodHandle typeSignatureToContent = null;
+        IllegalStateException lookupFailure = null;
+        try {
+            Class<?> typeSignatureClass = Class.forName(TYPE_SIGNATURE_CLASS);
+            var ctor = typeSignatureClass.getDeclaredConstructor(TypeElement.class, HtmlDocletWriter.class);
+            ctor.setAccessible(true);
+            var toContent = typeSignatureClass.getDeclaredMethod("toContent");
+            toContent.setAccessible(true);
+
+            var lookup = MethodHandles.lookup();
+            typeSignatureToContent = MethodHandles.filterReturnValue(
+                lookup.unreflectConstructor(ctor),
+                lookup.unreflect(toContent)
+            ).asType(MethodType.methodType(Content.class, TypeElement.class, HtmlDocletWriter.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            lookupFailure = new IllegalStateException(
+                "Could not access " + TYPE_SIGNATURE_CLASS + " of the standard doclet. "
+                    + "This JDK is not supported, or jdk.javadoc/jdk.javadoc.internal.doclets.formats.html is not opened to JavaMark.",
+                e);
+        }
+        TYPE_SIGNATURE_TO_CONTENT = typeSignatureToContent;
+        LOOKUP_FAILURE = lookupFailure;
+    }
+
+    /**
+     * Checks that the internals of the standard doclet which are used to render signatures are available.
+     * Called when the doclet starts, so an unsupported JDK fails before any page is written.
+     *
+     * @throws IllegalStateException if the internals could not be resolved.
+     */
+    public static void checkAvailable() {
+        if (LOOKUP_FAILURE != null) {
+            throw LOOKUP_FAILURE;
+        }
+    }
+
     /**
-     * Reflectively instantiates a Signatures.TypeSignature and invokes its toContent() method.
+     * Instantiates a Signatures.TypeSignature and invokes its toContent() method.
      * @param typeElement The TypeElement instance to pass to the constructor.
      * @param htmlDocletWriter The HtmlDocletWriter instance to pass to the constructor.
-     * @return The result of toContent(), or null if reflection fails.
+     * @return The result of toContent().
      */
     public static Content createTypeSignatureAndToContent(TypeElement typeElement, HtmlDocletWriter htmlDocletWriter) {
+        checkAvailable();
         try {
-            // Load the Signatures class
-            Class<?> signaturesClass = Class.forName("jdk.javadoc.internal.doclets.formats.html.Signatures");
-            // Find the TypeSignature inner class
-            for (Class<?> inner : signaturesClass.getDeclaredClasses()) {
-                if (inner.getSimpleName().equals("TypeSignature")) {
-                    // Get the constructor (TypeElement, HtmlDocletWriter)
-                    var ctor = inner.getDeclaredConstructor(TypeElement.class, HtmlDocletWriter.class);
-                    ctor.setAccessible(true);
-                    Object typeSignature = ctor.newInstance(typeElement, htmlDocletWriter);
-                    // Call toContent()
-                    var toContent = inner.getDeclaredMethod("toContent");
-                    toContent.setAccessible(true);
-                    return (Content) toContent.invoke(typeSignature);
-                }
-            }
-        } catch (Exception e) {
+            return (Content) TYPE_SIGNATURE_TO_CONTENT.invokeExact(typeElement, htmlDocletWriter);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
             throw new RuntimeException(e);
         }
-        throw new RuntimeException("Could not find type signatures!");
     }
 }
@@ -4,11 +4,9 @@ import javax.lang.model.element.Element;
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.TypeMirror;
-import java.io.File;
-import java.io.IOException;
-import java.util.Arrays;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -17,29 +15,62 @@ import java.util.Set;
  */
 public class TypeLinkProvider {
     private final TypeUniverse typeUniverse;
+    private final ExternalLinks externalLinks;
+    // Links only depend on the package of the source, so they are shared by all pages in that package
+    private final Map<PackageElement, Map<TypeElement, String>> relativeLinks = new HashMap<>();
+    private final Map<TypeElement, String> typeFileNames = new HashMap<>();
 
     public TypeLinkProvider(TypeUniverse typeUniverse, Set<TypeMirror> knownTypes) {
+        this(typeUniverse, knownTypes, ExternalLinks.none());
+    }
+
+    /**
+     * @param typeUniverse  the universe of the documented types
+     * @param knownTypes    the documented types
+     * @param externalLinks the pages of types documented by other runs
+     */
+    public TypeLinkProvider(TypeUniverse typeUniverse, Set<TypeMirror> knownTypes, ExternalLinks externalLinks) {
         this.typeUniverse = typeUniverse;
+        this.externalLinks = externalLinks;
     }
 
     /**
      * Generates a relative path from sourceType to targetType, or null if either is not in the known set.
      * The path is based on package hierarchy and type name (e.g., ../../foo/Bar.html).
+     * Types documented by another run are linked through its element list.
      */
     public String getRelativeLink(Element sourceType, TypeMirror targetType) {
-        if (sourceType.equals(typeUniverse.asTypeElement(targetType))) {
-            return getTypeFileName(targetType);
+        TypeElement target = typeUniverse.asTypeElement(targetType);
+        if (target == null)
+            return null;
+
+        if (sourceType.equals(target)) {
+            return getTypeFileName(target);
         }
 
-        if (!typeUniverse.contains(targetType))
+        boolean known = typeUniverse.contains(targetType);
+        if (!known && !externalLinks.contains(target))
             return null;
 
-        if (!(sourceType instanceof TypeElement) && !(sourceType instanceof PackageElement)) {
+        PackageElement sourcePackage;
+        if (sourceType instanceof TypeElement typeElement) {
+            sourcePackage = typeUniverse.getPackageOf(typeElement.asType());
+        } else if (sourceType instanceof PackageElement packageElement) {
+            sourcePackage = packageElement;
+        } else {
             return null;
         }
 
-        List<String> sourcePkg = sourceType instanceof TypeElement typeElement ? typeUniverse.getPackageHierarchy(typeElement.asType()) : typeUniverse.getPackageHierarchy((PackageElement) sourceType);
-        List<String> targetPkg = typeUniverse.getPackageHierarchy(targetType);
+        return relativeLinks
+            .computeIfAbsent(sourcePackage, pkg -> new HashMap<>())
+            .computeIfAbsent(target, type -> known
+                ? buildRelativeLink(sourcePackage, type)
+                : externalLinks.getRelativeLink(sourcePackage == null ? List.of() : typeUniverse.getPackageHierarchy(sourcePackage), type));
+    }
+
+    private String buildRelativeLink(PackageElement sourcePackage, TypeElement target) {
+        List<String> sourcePkg = sourcePackage == null ? List.of() : typeUniverse.getPackageHierarchy(sourcePackage);
+        List<String> targetPkg = typeUniverse.getPackageHierarchy(target.asType());
         int common = 0;
         while (common < sourcePkg.size() && common < targetPkg.size() && Objects.equals(sourcePkg.get(common), targetPkg.get(common))) {
             common++;
@@ -51,13 +82,12 @@ public class TypeLinkProvider {
         for (int i = common; i < targetPkg.size(); i++) {
             rel.append(targetPkg.get(i)).append("/");
         }
-        rel.append(getTypeFileName(targetType));
+        rel.append(getTypeFileName(target));
         return rel.toString();
     }
 
-    private String getTypeFileName(TypeMirror type) {
-        TypeElement el = typeUniverse.asTypeElement(type);
-        return typeFilePath(el);
+    private String getTypeFileName(TypeElement type) {
+        return typeFileNames.computeIfAbsent(type, this::typeFilePath);
     }
 
     private String typeFilePath(TypeElement typeElement)
@@ -70,4 +100,3 @@ public class TypeLinkProvider {
         return typeElement.getSimpleName().toString();
     }
 }
-
@@ -28,6 +28,7 @@ import jdk.javadoc.doclet.DocletEnvironment;
 
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.ModuleElement;
@@ -47,11 +48,14 @@ import javax.lang.model.util.Types;
 import java.lang.annotation.Documented;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -71,14 +75,47 @@ import static javax.lang.model.type.TypeKind.VOID;
  * TypeUniverse provides utilities to navigate and introspect Java types using TypeMirror and related APIs.
  */
 public class TypeUniverse {
+
+    /**
+     * The ways in which an element can refer to a documented type.
+     */
+    public enum UseKind {
+        /** The type is a superclass or an interface of the user. */
+        SUPERTYPE,
+        /** The type is part of the type of a field. */
+        FIELD,
+        /** The type is part of the type of a parameter of a method or constructor. */
+        PARAMETER,
+        /** The type is part of the return type of a method. */
+        RETURN_TYPE,
+        /** The type is thrown by a method or constructor. */
+        THROWS,
+        /** The type is an annotation on the user, or on one of its parameters. */
+        ANNOTATION
+    }
+
+    private static final Comparator<Element> USE_ORDER = Comparator.comparing(TypeUniverse::getUseSortKey);
+    private static final Comparator<TypeElement> BY_QUALIFIED_NAME = Comparator.comparing(type -> type.getQualifiedName().toString());
+
     private final DocletEnvironment docletEnvironment;
     private final Elements elementUtils;
     private final Types typeUtils;
     private final Set<TypeElement> knownTypes;
     private final Set<PackageElement> knownPackages;
-    // New fields for supertype and subtype tracking
+    // The type graph of the known types: superclass, interface, subinterface and implementor edges, built once
     private final Map<TypeElement, TypeElement> directSuperTypeMap;
-    private final Map<TypeElement, Set<TypeElement>> directSubTypesMap;
+    private final Map<TypeElement, List<TypeElement>> directSubTypesMap;
+    // Transitive closures and hierarchies, cached when they are first requested, on the doclet thread
+    private final Map<TypeElement, List<TypeElement>> allSubTypesMap = new HashMap<>();
+    private final Map<TypeElement, List<TypeElement>> allSuperTypesMap = new HashMap<>();
+    private final Map<TypeElement, List<TypeMirror>> superTypeHierarchyMap = new HashMap<>();
+    // Package indexes, so package pages only touch the types and packages they list
+    private final Map<PackageElement, List<TypeElement>> packageTypesMap;
+    private final Map<String, List<PackageElement>> childPackagesMap;
+    // Reverse references, only built when they are first requested, on the doclet thread
+    private Map<TypeElement, Map<UseKind, List<Element>>> usesMap;
+    // Whether an annotation type is @Documented, cached per annotation type, on the doclet thread
+    private final Map<TypeElement, Boolean> documentedAnnotationsMap = new HashMap<>();
 
     public TypeUniverse(final DocletEnvironment docletEnvironment, Elements elementUtils, Types typeUtils, final Set<TypeElement> knownTypes, final Set<PackageElement> knownPackages) {
         this.docletEnvironment = docletEnvironment;
@@ -88,22 +125,45 @@ public class TypeUniverse {
         this.knownPackages = knownPackages;
         this.directSuperTypeMap = new HashMap<>();
         this.directSubTypesMap = new HashMap<>();
+        this.packageTypesMap = new HashMap<>();
+        this.childPackagesMap = new HashMap<>();
         buildSuperAndSubTypeMaps();
+        buildPackageMaps();
     }
 
-    // Build the supertype and subtype maps
+    // Build the supertype and subtype maps, with an edge from every known type to each of its known direct supertypes
     private void buildSuperAndSubTypeMaps() {
-        // First, initialize all sets
+        Map<TypeElement, Set<TypeElement>> subTypes = new HashMap<>();
         for (TypeElement type : knownTypes) {
-            directSubTypesMap.put(type, new HashSet<>());
-        }
-        // Now, for each type, find its direct supertype and update both maps
-        for (TypeElement type : knownTypes) {
-            TypeMirror superTypeMirror = type.getSuperclass();
-            TypeElement superType = asTypeElement(superTypeMirror);
+            TypeElement superType = asTypeElement(type.getSuperclass());
             if (superType != null && knownTypes.contains(superType)) {
                 directSuperTypeMap.put(type, superType);
-                directSubTypesMap.get(superType).add(type);
+                subTypes.computeIfAbsent(superType, k -> new HashSet<>()).add(type);
+            }
+            for (TypeMirror iface : type.getInterfaces()) {
+                TypeElement superInterface = asTypeElement(iface);
+                if (superInterface != null && knownTypes.contains(superInterface)) {
+                    subTypes.computeIfAbsent(superInterface, k -> new HashSet<>()).add(type);
+                }
+            }
+        }
+        subTypes.forEach((type, subs) -> directSubTypesMap.put(type, subs.stream().sorted(BY_QUALIFIED_NAME).toList()));
+    }
+
+    // Build the package to types and package to child packages maps
+    private void buildPackageMaps() {
+        for (TypeElement type : knownTypes) {
+            PackageElement enclosing = ElementUtils.getEnclosingPackage(type);
+            if (enclosing != null) {
+                packageTypesMap.computeIfAbsent(enclosing, k -> new ArrayList<>()).add(type);
+            }
+        }
+        // Children are keyed by the name of their parent, which does not need to be a known package itself
+        for (PackageElement pkg : knownPackages) {
+            String name = pkg.getQualifiedName().toString();
+            int separator = name.lastIndexOf('.');
+            if (separator > 0) {
+                childPackagesMap.computeIfAbsent(name.substring(0, separator), k -> new ArrayList<>()).add(pkg);
             }
         }
     }
@@ -182,38 +242,70 @@ public class TypeUniverse {
     }
 
     /**
-     * Returns all supertypes (superclass and interfaces, recursively) for the given type.
+     * Returns all supertypes (superclass and interfaces, recursively) of the given type, including the ones which are not
+     * documented. Every type comes before its own supertypes, starting with the superclass.
      */
-    public Set<TypeMirror> getAllSuperTypes(TypeMirror typeMirror) {
-        Set<TypeMirror> result = new java.util.HashSet<>();
-        collectSuperTypes(typeMirror, result);
-        return result;
+    public List<TypeElement> getAllSuperTypes(TypeElement type) {
+        var superTypes = allSuperTypesMap.get(type);
+        if (superTypes == null) {
+            superTypes = topologicalClosure(type, this::getDirectSuperTypes);
+            allSuperTypesMap.put(type, superTypes);
+        }
+        return superTypes;
     }
 
-    private void collectSuperTypes(TypeMirror typeMirror, Set<TypeMirror> result) {
-        TypeElement typeElement = asTypeElement(typeMirror);
-        if (typeElement == null) return;
-        TypeMirror superClass = typeElement.getSuperclass();
-        if (superClass != null && typeUtils.asElement(superClass) != null) {
-            if (result.add(superClass)) {
-                collectSuperTypes(superClass, result);
+    /**
+     * Returns all known subtypes (subclasses, subinterfaces and implementors, recursively) of the given type.
+     * Every type comes before its own subtypes, and direct subtypes are sorted by name.
+     */
+    public List<TypeElement> getAllSubTypes(TypeElement type) {
+        var subTypes = allSubTypesMap.get(type);
+        if (subTypes == null) {
+            subTypes = topologicalClosure(type, this::getDirectSubTypes);
+            allSubTypesMap.put(type, subTypes);
+        }
+        return subTypes;
+    }
+
+    private List<TypeElement> getDirectSuperTypes(TypeElement type) {
+        List<TypeElement> superTypes = new ArrayList<>();
+        TypeElement superClass = asTypeElement(type.getSuperclass());
+        if (superClass != null) {
+            superTypes.add(superClass);
+        }
+        for (TypeMirror iface : type.getInterfaces()) {
+            TypeElement superInterface = asTypeElement(iface);
+            if (superInterface != null) {
+                superTypes.add(superInterface);
             }
         }
-        for (TypeMirror iface : typeElement.getInterfaces()) {
-            if (result.add(iface)) {
-                collectSuperTypes(iface, result);
+        return superTypes;
+    }
+
+    // Orders everything reachable from the start so that every type comes before the types it reaches, by reversing
+    // the post order of a depth first search. Edges are visited backwards, so the first edge of the start comes first.
+    private static List<TypeElement> topologicalClosure(TypeElement start, Function<TypeElement, List<TypeElement>> edges) {
+        List<TypeElement> postOrder = new ArrayList<>();
+        visitClosure(start, edges, new HashSet<>(List.of(start)), postOrder);
+        return List.copyOf(postOrder.reversed());
+    }
+
+    private static void visitClosure(TypeElement type, Function<TypeElement, List<TypeElement>> edges, Set<TypeElement> visited, List<TypeElement> postOrder) {
+        var next = edges.apply(type);
+        for (int i = next.size() - 1; i >= 0; i--) {
+            if (visited.add(next.get(i))) {
+                visitClosure(next.get(i), edges, visited, postOrder);
+                postOrder.add(next.get(i));
             }
         }
     }
 
+    /**
+     * Returns the known types in the given package, including nested types.
+     */
     public List<TypeElement> getTypesInPackage(PackageElement pkg) {
         if (pkg == null) return Collections.emptyList();
-        return knownTypes.stream()
-            .filter(t -> {
-                PackageElement enclosing = com.communi.suggestu.javamark.doclet.utils.ElementUtils.getEnclosingPackage(t);
-                return enclosing != null && enclosing.equals(pkg);
-            })
-            .collect(Collectors.toList());
+        return Collections.unmodifiableList(packageTypesMap.getOrDefault(pkg, Collections.emptyList()));
     }
 
     public PackageElement getParentOf(PackageElement pkg) {
@@ -223,16 +315,12 @@ public class TypeUniverse {
         return packageElement;
     }
 
+    /**
+     * Returns the known packages which are direct children of the given package.
+     */
     public List<PackageElement> getChildPackages(PackageElement pkg) {
-        return knownPackages.stream()
-            .filter(p -> isDirectChild(pkg, p)).toList();
-    }
-
-    private static boolean isDirectChild(PackageElement parent, PackageElement child) {
-        String parentName = parent.getQualifiedName().toString();
-        String childName = child.getQualifiedName().toString();
-        if (!childName.startsWith(parentName + ".")) return false;
-        return childName.substring(parentName.length() + 1).indexOf('.') < 0;
+        if (pkg.isUnnamed()) return Collections.emptyList();
+        return Collections.unmodifiableList(childPackagesMap.getOrDefault(pkg.getQualifiedName().toString(), Collections.emptyList()));
     }
 
     public boolean contains(final TypeMirror targetType)
@@ -248,10 +336,115 @@ public class TypeUniverse {
     }
 
     /**
-     * Returns the set of direct subtypes (TypeElement) of the given type.
+     * Returns the known direct subtypes of the given type: the subclasses of a class, or the subinterfaces and
+     * implementors of an interface, sorted by name.
      */
-    public Set<TypeElement> getDirectSubTypes(TypeElement type) {
-        return directSubTypesMap.getOrDefault(type, Collections.emptySet());
+    public List<TypeElement> getDirectSubTypes(TypeElement type) {
+        return directSubTypesMap.getOrDefault(type, Collections.emptyList());
+    }
+
+    /**
+     * Returns the included elements which refer to the given type in the given way, sorted by name.
+     * The elements are types, fields, methods or constructors. The references of all types are indexed on the first call,
+     * in a single pass over the included types and their members.
+     */
+    public List<Element> getUses(TypeElement type, UseKind kind) {
+        if (usesMap == null) {
+            buildUsesMap();
+        }
+        return usesMap.getOrDefault(type, Collections.emptyMap()).getOrDefault(kind, Collections.emptyList());
+    }
+
+    // Build the map from every known type to the included elements which refer to it
+    private void buildUsesMap() {
+        Map<TypeElement, Map<UseKind, Set<Element>>> uses = new HashMap<>();
+        for (TypeElement type : knownTypes) {
+            addUses(uses, type, UseKind.SUPERTYPE, type.getSuperclass());
+            for (TypeMirror iface : type.getInterfaces()) {
+                addUses(uses, type, UseKind.SUPERTYPE, iface);
+            }
+            addAnnotationUses(uses, type, type);
+
+            for (Element member : type.getEnclosedElements()) {
+                if (!isIncluded(member)) {
+                    continue;
+                }
+
+                // Enum constants always have the type of their enum, which is not worth listing
+                if (member instanceof VariableElement field && field.getKind() == ElementKind.FIELD) {
+                    addUses(uses, field, UseKind.FIELD, field.asType());
+                    addAnnotationUses(uses, field, field);
+                } else if (member instanceof ExecutableElement executable) {
+                    addUses(uses, executable, UseKind.RETURN_TYPE, executable.getReturnType());
+                    for (VariableElement parameter : executable.getParameters()) {
+                        addUses(uses, executable, UseKind.PARAMETER, parameter.asType());
+                        addAnnotationUses(uses, executable, parameter);
+                    }
+                    for (TypeMirror thrown : executable.getThrownTypes()) {
+                        addUses(uses, executable, UseKind.THROWS, thrown);
+                    }
+                    addAnnotationUses(uses, executable, executable);
+                }
+            }
+        }
+
+        usesMap = new HashMap<>();
+        uses.forEach((type, byKind) -> {
+            Map<UseKind, List<Element>> sorted = new EnumMap<>(UseKind.class);
+            byKind.forEach((kind, users) -> sorted.put(kind, users.stream().sorted(USE_ORDER).toList()));
+            usesMap.put(type, sorted);
+        });
+    }
+
+    // Records the user for every known type the given type mentions, including type arguments and bounds of wildcards
+    private void addUses(Map<TypeElement, Map<UseKind, Set<Element>>> uses, Element user, UseKind kind, TypeMirror type) {
+        new SimpleTypeVisitor14<Void, Void>() {
+            @Override
+            public Void visitArray(ArrayType t, Void p) {
+                return visit(t.getComponentType());
+            }
+
+            @Override
+            public Void visitDeclared(DeclaredType t, Void p) {
+                addUse(uses, t.asElement(), kind, user);
+                for (TypeMirror typeArgument : t.getTypeArguments()) {
+                    visit(typeArgument);
+                }
+                return null;
+            }
+
+            @Override
+            public Void visitWildcard(javax.lang.model.type.WildcardType t, Void p) {
+                if (t.getExtendsBound() != null) {
+                    visit(t.getExtendsBound());
+                }
+                if (t.getSuperBound() != null) {
+                    visit(t.getSuperBound());
+                }
+                return null;
+            }
+        }.visit(type);
+    }
+
+    private void addAnnotationUses(Map<TypeElement, Map<UseKind, Set<Element>>> uses, Element user, Element annotated) {
+        for (AnnotationMirror annotation : annotated.getAnnotationMirrors()) {
+            addUse(uses, annotation.getAnnotationType().asElement(), UseKind.ANNOTATION, user);
+        }
+    }
+
+    private void addUse(Map<TypeElement, Map<UseKind, Set<Element>>> uses, Element used, UseKind kind, Element user) {
+        if (used instanceof TypeElement usedType && knownTypes.contains(usedType)) {
+            uses.computeIfAbsent(usedType, k -> new EnumMap<>(UseKind.class))
+                .computeIfAbsent(kind, k -> new HashSet<>())
+                .add(user);
+        }
+    }
+
+    private static String getUseSortKey(Element user) {
+        if (user instanceof TypeElement type) {
+            return type.getQualifiedName().toString();
+        }
+        return ((TypeElement) user.getEnclosingElement()).getQualifiedName() + "#" + user;
     }
 
     public String getTypeName(TypeMirror t, boolean fullyQualified) {
@@ -359,6 +552,15 @@ public class TypeUniverse {
      * @return true return true if it should be documented and false otherwise.
      */
     public boolean isDocumentedAnnotation(TypeElement annotation) {
+        var documented = documentedAnnotationsMap.get(annotation);
+        if (documented == null) {
+            documented = isAnnotatedWithDocumented(annotation);
+            documentedAnnotationsMap.put(annotation, documented);
+        }
+        return documented;
+    }
+
+    private boolean isAnnotatedWithDocumented(TypeElement annotation) {
         for (AnnotationMirror anno : annotation.getAnnotationMirrors()) {
             if (getFullyQualifiedName(anno.getAnnotationType().asElement()).equals(
                 Documented.class.getName())) {
@@ -550,6 +752,20 @@ public class TypeUniverse {
         return (PackageElement) element.getEnclosingElement();
     }
 
+    /**
+     * Returns the visible superclasses of the given type, from the root down to its direct superclass.
+     * The hierarchy is computed once per type.
+     */
+    public List<TypeMirror> getSuperTypeHierarchy(TypeElement type)
+    {
+        var hierarchy = superTypeHierarchyMap.get(type);
+        if (hierarchy == null) {
+            hierarchy = List.copyOf(getSuperTypeHierarchy(type.asType()));
+            superTypeHierarchyMap.put(type, hierarchy);
+        }
+        return hierarchy;
+    }
+
     public List<TypeMirror> getSuperTypeHierarchy(TypeMirror type)
     {
         List<TypeMirror> result = new ArrayList<>();
@@ -1,7 +1,7 @@
 package com.communi.suggestu.javamark.doclet.writers;
 
 import com.communi.suggestu.javamark.doclet.content.NoneEncodingContentBuilder;
-import com.communi.suggestu.javamark.doclet.utils.MarkdownCommentSanitizer;
+import com.communi.suggestu.javamark.doclet.content.SanitizedCommentContent;
 import com.sun.source.doctree.DocTree;
 import com.sun.source.doctree.DocTreeVisitor;
 import com.sun.source.doctree.EndElementTree;
@@ -15,8 +15,6 @@ import jdk.javadoc.internal.html.Entity;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.Name;
 import javax.lang.model.element.TypeElement;
-import java.io.IOException;
-import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -79,7 +77,7 @@ public class MarkdownClassWriterImpl extends ClassWriter
         Content result = commentTagsToContent(element, tags, first, inSummary);
         if (!result.isEmpty())
         {
-            target.add(sanitizeCommentContent(result));
+            target.add(new SanitizedCommentContent(result));
         }
         if (tags.isEmpty())
         {
@@ -87,23 +85,6 @@ public class MarkdownClassWriterImpl extends ClassWriter
         }
     }
 
-    private Content sanitizeCommentContent(final Content content)
-    {
-        try
-        {
-            var writer = new StringWriter();
-            content.write(writer, "\n", true);
-
-            return new NoneEncodingContentBuilder().add(
-                MarkdownCommentSanitizer.stripBlankLinesInsideDivBlocks(writer.toString())
-            );
-        }
-        catch (IOException e)
-        {
-            throw new RuntimeException(e);
-        }
-    }
-
     private List<DocTree> closeDanglingParagraphs(List<? extends DocTree> tags)
     {
         var result = new ArrayList<DocTree>();
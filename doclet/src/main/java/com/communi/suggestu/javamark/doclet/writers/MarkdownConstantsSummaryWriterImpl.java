@@ -51,6 +51,11 @@ public class MarkdownConstantsSummaryWriterImpl
         content.add("- ").add(abbrevPackageName).add(Constants.MARKDOWN_NEW_LINE);
     }
 
+    public void addLinkToPackageConstants(final String packageName, final String link, final Content content)
+    {
+        content.add("- [").add(packageName.isBlank() ? "(default)" : packageName).add("](").add(link).add(")").add(Constants.MARKDOWN_NEW_LINE);
+    }
+
     public void addContentsList(final Content content)
     {
         target.add(content);
@@ -33,6 +33,12 @@ public class MarkdownHtmlDocletWriter extends HtmlDocletWriter
         // This writer is used as a content helper, not as a standalone page builder.
     }
 
+    @Override
+    public void addTagsInfo(final Element e, final Content content)
+    {
+        super.addTagsInfo(e, content);
+    }
+
     @Override
     public Content commentTagsToContent(final Element element, final List<? extends DocTree> trees, final boolean isFirstSentence, final boolean inSummary)
     {
@@ -1,5 +1,7 @@
 package com.communi.suggestu.javamark.doclet;
 
+import com.communi.suggestu.javamark.doclet.rendering.ModelRenderer;
+import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.Test;
 
 import javax.tools.DocumentationTool;
@@ -16,6 +18,8 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -25,21 +29,262 @@ public class JavaMarkIntegrationTest
 
     private static final String COMPARISON_OPTIONS_FILE = "../example/build/tmp/javadoc/javadoc.options";
     private static final String COMPARISON_DEFAULT_OUTPUT = "../example/build/docs";
+    private static final String EXAMPLE_SOURCES = "../example/src/main/java";
+    private static final String EXAMPLE_PACKAGES = "com.communi.suggestu.javamark.example";
 
     @Test
     void testJavadocIntegration() throws Exception {
-        Method execute = Class.forName("jdk.javadoc.internal.tool.Main").getMethod("execute", String[].class);
-        execute.setAccessible(true);
-        String outputDirectory = "target/javadoc-output";
+        int result = runJavaMark("target/javadoc-output");
+        assertThat(result).isEqualTo(0);
+    }
+
+    @Test
+    void testMarkdownOnlyIntegration() throws Exception {
+        String outputDirectory = "target/javadoc-output-markdown-only";
+        int result = runJavaMark(outputDirectory, "--markdown-only");
+        assertThat(result).isEqualTo(0);
+        assertThat(Path.of(outputDirectory, "com/communi/suggestu/javamark/example/SimpleTestClass.md")).exists();
+    }
+
+    @Test
+    void testParallelRenderingIsIdenticalToSequentialRendering() throws Exception {
+        String sequentialDirectory = "target/javadoc-output-sequential";
+        String parallelDirectory = "target/javadoc-output-parallel";
+        int sequentialResult = runJavaMark(sequentialDirectory, "--markdown-only");
+        int parallelResult = runJavaMark(parallelDirectory, "--markdown-only", "--render-threads", "4");
+        assertThat(sequentialResult).isEqualTo(0);
+        assertThat(parallelResult).isEqualTo(0);
+        assertThat(readFiles(parallelDirectory)).isEqualTo(readFiles(sequentialDirectory));
+    }
+
+    @Test
+    void testIncrementalRenderingSkipsUnchangedPages() throws Exception {
+        String outputDirectory = "target/javadoc-output-incremental";
+        int firstResult = runJavaMark(outputDirectory, "--incremental");
+        assertThat(firstResult).isEqualTo(0);
+        assertThat(Path.of(outputDirectory, ".javamark-manifest")).exists();
+
+        Path page = Path.of(outputDirectory, "com/communi/suggestu/javamark/example/SimpleTestClass.md");
+        Map<String, String> firstOutput = readFiles(outputDirectory);
+        var firstModified = Files.getLastModifiedTime(page);
+
+        int secondResult = rerunJavaMark(outputDirectory, "--incremental");
+        assertThat(secondResult).isEqualTo(0);
+        assertThat(readFiles(outputDirectory)).isEqualTo(firstOutput);
+        assertThat(Files.getLastModifiedTime(page)).isEqualTo(firstModified);
+    }
+
+    @Test
+    void testIncrementalRenderingIgnoresRenderThreads() throws Exception {
+        String outputDirectory = "target/javadoc-output-incremental-threads";
+        int firstResult = runJavaMark(outputDirectory, "--incremental");
+        assertThat(firstResult).isEqualTo(0);
+
+        Path manifest = Path.of(outputDirectory, ".javamark-manifest");
+        String firstManifest = Files.readString(manifest);
+
+        int secondResult = rerunJavaMark(outputDirectory, "--incremental", "--render-threads", "4");
+        assertThat(secondResult).isEqualTo(0);
+        assertThat(Files.readString(manifest)).isEqualTo(firstManifest);
+    }
+
+    @Test
+    void testIncrementalRenderingKeepsPagesUnrelatedToAnAddedClass() throws Exception {
+        String sourceDirectory = "target/javadoc-sources-added-class";
+        String outputDirectory = "target/javadoc-output-added-class";
+        deleteRecursively(sourceDirectory);
         deleteRecursively(outputDirectory);
-        int result = (int) execute.invoke(null, (Object) new String[]{
-            "--module-path", classpath(),
-            "-doclet", "com.communi.suggestu.javamark.doclet.JavaMarkDoclet",
-            "--source-path", "../example/src/main/java",
-            "-d", outputDirectory,
-            "-subpackages", "com.communi.suggestu.javamark.example",
-        });
+        FileUtils.copyDirectory(new File(EXAMPLE_SOURCES), new File(sourceDirectory));
+        int firstResult = runJavaMarkOn(sourceDirectory, EXAMPLE_PACKAGES, outputDirectory, "--incremental");
+        assertThat(firstResult).isEqualTo(0);
+
+        Path page = Path.of(outputDirectory, "com/communi/suggestu/javamark/example/SimpleTestClass.md");
+        Path manifest = Path.of(outputDirectory, ".javamark-manifest");
+        var firstModified = Files.getLastModifiedTime(page);
+        String firstFingerprint = manifestLine(manifest, "com/communi/suggestu/javamark/example/SimpleTestClass.md");
+
+        Files.writeString(Path.of(sourceDirectory, "com/communi/suggestu/javamark/example/AddedClass.java"), """
+            package com.communi.suggestu.javamark.example;
+
+            /**
+             * A class which is added between two runs.
+             */
+            public class AddedClass
+            {
+            }
+            """);
+
+        int secondResult = runJavaMarkOn(sourceDirectory, EXAMPLE_PACKAGES, outputDirectory, "--incremental");
+        assertThat(secondResult).isEqualTo(0);
+        assertThat(Path.of(outputDirectory, "com/communi/suggestu/javamark/example/AddedClass.md")).exists();
+        assertThat(manifestLine(manifest, "com/communi/suggestu/javamark/example/SimpleTestClass.md")).isEqualTo(firstFingerprint);
+        assertThat(Files.getLastModifiedTime(page)).isEqualTo(firstModified);
+    }
+
+    @Test
+    void testRegenerationKeepsUnchangedPages() throws Exception {
+        String outputDirectory = "target/javadoc-output-regeneration";
+        int firstResult = runJavaMark(outputDirectory, "--staged-output");
+        assertThat(firstResult).isEqualTo(0);
+
+        Path page = Path.of(outputDirectory, "com/communi/suggestu/javamark/example/SimpleTestClass.md");
+        Map<String, String> firstOutput = readFiles(outputDirectory);
+        var firstModified = Files.getLastModifiedTime(page);
+        Path orphan = Path.of(outputDirectory, "com/communi/suggestu/javamark/example/Removed.md");
+        Files.writeString(orphan, "removed");
+
+        int secondResult = rerunJavaMark(outputDirectory, "--staged-output");
+        assertThat(secondResult).isEqualTo(0);
+        assertThat(orphan).doesNotExist();
+        assertThat(readFiles(outputDirectory)).isEqualTo(firstOutput);
+        assertThat(Files.getLastModifiedTime(page)).isEqualTo(firstModified);
+    }
+
+    @Test
+    void testFailedStagedRunLeavesPreviousOutputUntouched() throws Exception {
+        String outputDirectory = "target/javadoc-output-failed-staging";
+        int firstResult = runJavaMark(outputDirectory, "--staged-output");
+        assertThat(firstResult).isEqualTo(0);
+        Map<String, String> firstOutput = readFiles(outputDirectory);
+
+        // The missing element list fails the run after the standard doclet ran and the staging directory was created.
+        int secondResult = rerunJavaMark(outputDirectory,
+            "--staged-output",
+            "--link-manifest", "https://example.com/docs", "target/missing-element-list");
+        assertThat(secondResult).isNotEqualTo(0);
+        assertThat(readFiles(outputDirectory)).isEqualTo(firstOutput);
+        assertThat(Path.of(outputDirectory + ".javamark-staging")).doesNotExist();
+    }
+
+    @Test
+    void testProfileReportListsSlowestPages() throws Exception {
+        Path report = Path.of("target/javamark-profile.json");
+        Files.deleteIfExists(report);
+        int result = runJavaMark("target/javadoc-output-profile",
+            "--markdown-only",
+            "--profile", report.toString(),
+            "--profile-top", "3");
         assertThat(result).isEqualTo(0);
+        assertThat(report).exists();
+        assertThat(Files.readString(report))
+            .contains("\"name\": \"standard doclet\"")
+            .contains("\"slowestPages\"")
+            .contains("\"kind\": \"type\"");
+    }
+
+    @Test
+    void testConstantsPerPackage() throws Exception {
+        String outputDirectory = "target/javadoc-output-constants";
+        int result = runJavaMark(outputDirectory, "--markdown-only", "--constants-per-package");
+        assertThat(result).isEqualTo(0);
+        assertThat(Files.readString(Path.of(outputDirectory, "constant-values.md")))
+            .contains("(com/communi/suggestu/javamark/example/inner/constant-values.md)")
+            .doesNotContain("MAX_SIZE");
+        assertThat(Files.readString(Path.of(outputDirectory, "com/communi/suggestu/javamark/example/inner/constant-values.md")))
+            .contains("com.communi.suggestu.javamark.example.inner.SizeInformation")
+            .contains("`MAX_SIZE` = `65536`");
+    }
+
+    @Test
+    void testMergedShardsAreIdenticalToFullRendering() throws Exception {
+        String fullDirectory = "target/javadoc-output-unsharded";
+        String mergedDirectory = "target/javadoc-output-merged";
+        List<String> shardDirectories = List.of("target/javadoc-output-shard-0", "target/javadoc-output-shard-1");
+
+        int fullResult = runJavaMark(fullDirectory, "--markdown-only");
+        assertThat(fullResult).isEqualTo(0);
+
+        for (int shard = 0; shard < shardDirectories.size(); shard++) {
+            int shardResult = runJavaMark(shardDirectories.get(shard), "--markdown-only", "--shard", shard + "/" + shardDirectories.size());
+            assertThat(shardResult).isEqualTo(0);
+            assertThat(Path.of(shardDirectories.get(shard), "constant-values.md")).doesNotExist();
+        }
+
+        int mergeResult = runJavaMark(mergedDirectory, "--markdown-only", "--merge-shards", String.join(File.pathSeparator, shardDirectories));
+        assertThat(mergeResult).isEqualTo(0);
+        assertThat(readFiles(mergedDirectory)).isEqualTo(readFiles(fullDirectory));
+    }
+
+    @Test
+    void testLinksToTypesOfAnotherRun() throws Exception {
+        String libraryDirectory = "target/javadoc-output-library";
+        String linkingDirectory = "target/javadoc-output-linking";
+        deleteRecursively(libraryDirectory);
+
+        int libraryResult = runJavaMarkOn(EXAMPLE_SOURCES, EXAMPLE_PACKAGES + ".second", libraryDirectory, "--markdown-only");
+        assertThat(libraryResult).isEqualTo(0);
+        assertThat(Files.readString(Path.of(libraryDirectory, "javamark-element-list")))
+            .contains("com.communi.suggestu.javamark.example.second.ISecondInterfaceReference\tcom/communi/suggestu/javamark/example/second/ISecondInterfaceReference");
+
+        int linkingResult = runJavaMark(linkingDirectory,
+            "--markdown-only",
+            "--link-manifest", "https://docs.example.com/library", libraryDirectory,
+            "-exclude", "com.communi.suggestu.javamark.example.second");
+        assertThat(linkingResult).isEqualTo(0);
+        assertThat(Path.of(linkingDirectory, "com/communi/suggestu/javamark/example/second")).doesNotExist();
+        assertThat(Files.readString(Path.of(linkingDirectory, "com/communi/suggestu/javamark/example/LinkSourceClass.md")))
+            .contains("(https://docs.example.com/library/com/communi/suggestu/javamark/example/second/ISecondInterfaceReference)");
+    }
+
+    @Test
+    void testRenderingTheModelIsIdenticalToRenderingTheSources() throws Exception {
+        String outputDirectory = "target/javadoc-output-model-source";
+        String renderedDirectory = "target/javadoc-output-model-rendered";
+        String modelFile = "target/javamark-model.bin";
+        deleteRecursively(renderedDirectory);
+        Files.deleteIfExists(Path.of(modelFile));
+
+        int result = runJavaMark(outputDirectory, "--markdown-only", "--write-model", modelFile);
+        assertThat(result).isEqualTo(0);
+        assertThat(Path.of(modelFile)).exists();
+
+        ModelRenderer.main(new String[]{modelFile, renderedDirectory, "4"});
+
+        var sourceFiles = readFiles(outputDirectory);
+        var renderedFiles = readFiles(renderedDirectory);
+        assertThat(renderedFiles).containsKey(Path.of("com/communi/suggestu/javamark/example/SimpleTestClass.md").toString());
+        assertThat(renderedFiles.keySet()).containsAll(sourceFiles.keySet().stream().filter(file -> file.endsWith(".md")).toList());
+        renderedFiles.forEach((file, content) -> assertThat(content).as(file).isEqualTo(sourceFiles.get(file)));
+    }
+
+    @Test
+    void testSearchIndexIsShardedByPrefix() throws Exception {
+        String outputDirectory = "target/javadoc-output-search";
+        int result = runJavaMark(outputDirectory, "--markdown-only", "--search-index", "prefix");
+        assertThat(result).isEqualTo(0);
+        assertThat(Files.readString(Path.of(outputDirectory, "search/index.json")))
+            .contains("\"sharding\": \"prefix\"")
+            .contains("{\"key\": \"m\", \"file\": \"m.json\"")
+            .contains("{\"key\": \"s\", \"file\": \"s.json\"");
+        assertThat(Files.readString(Path.of(outputDirectory, "search/s.json")))
+            .contains("{\"name\": \"SimpleTestClass\", \"kind\": \"class\", \"qualifiedName\": \"com.communi.suggestu.javamark.example.SimpleTestClass\"");
+        assertThat(Files.readString(Path.of(outputDirectory, "search/m.json")))
+            .contains("\"signature\": \"List<String> methodsReturningGenerics()\", \"summary\": \"Methods returning generics work\", "
+                + "\"page\": \"com/communi/suggestu/javamark/example/SimpleTestClass\", \"anchor\": \"methodsReturningGenerics()\"}")
+            .doesNotContain("\"name\": \"SimpleTestClass\"");
+    }
+
+    @Test
+    void testClassUseListsReferencingMembers() throws Exception {
+        String outputDirectory = "target/javadoc-output-use";
+        int result = runJavaMark(outputDirectory, "--markdown-only", "-use");
+        assertThat(result).isEqualTo(0);
+        assertThat(Files.readString(Path.of(outputDirectory, "com/communi/suggestu/javamark/example/SimpleTestClass.md")))
+            .contains("**Returned by:**")
+            .contains("[SimpleTestClass.methodsReturningInternalType](SimpleTestClass#methodsReturningInternalType())");
+    }
+
+    @Test
+    void testInterfacesListAllKnownSubtypes() throws Exception {
+        String outputDirectory = "target/javadoc-output-hierarchy";
+        int result = runJavaMark(outputDirectory, "--markdown-only");
+        assertThat(result).isEqualTo(0);
+        assertThat(Files.readString(Path.of(outputDirectory, "com/communi/suggestu/javamark/example/SimpleTestClass.InnerInterface.md")))
+            .contains("**All Known Subinterfaces:**")
+            .contains("[ExtendedInterface](SimpleTestClass.ExtendedInterface)")
+            .contains("**All Known Implementing Classes:**")
+            .contains("[InheritedAndImplementingClass](SimpleTestClass.InheritedAndImplementingClass)")
+            .contains("[TerminalClass](SimpleTestClass.TerminalClass)");
     }
 
     @Test
@@ -51,9 +296,9 @@ public class JavaMarkIntegrationTest
         int result = (int) docTool.run(System.in, System.out, System.err, new String[]{
             "--module-path", classpath(),
             "-doclet", "com.communi.suggestu.javamark.doclet.JavaMarkDoclet",
-            "--source-path", "../example/src/main/java",
+            "--source-path", EXAMPLE_SOURCES,
             "-d", outputDirectory,
-            "-subpackages", "com.communi.suggestu.javamark.example",
+            "-subpackages", EXAMPLE_PACKAGES,
         });
         assertThat(result).isEqualTo(0);
     }
@@ -61,13 +306,49 @@ public class JavaMarkIntegrationTest
 
     @Test
     void testHtmlJavadocIntegration() throws Exception {
-        Method execute = Class.forName("jdk.javadoc.internal.tool.Main").getMethod("execute", String[].class);
-        execute.setAccessible(true);
         deleteRecursively(COMPARISON_DEFAULT_OUTPUT);
-        int result = (int) execute.invoke(null, (Object) processDefaultOptions(Files.readAllLines(Path.of(COMPARISON_OPTIONS_FILE)).toArray(String[]::new)));
+        int result = execute(processDefaultOptions(Files.readAllLines(Path.of(COMPARISON_OPTIONS_FILE)).toArray(String[]::new)));
         assertThat(result).isEqualTo(0);
     }
 
+    /**
+     * Runs JavaMark over the example sources into an empty output directory.
+     */
+    private int runJavaMark(String outputDirectory, String... extraOptions) throws Exception
+    {
+        deleteRecursively(outputDirectory);
+        return rerunJavaMark(outputDirectory, extraOptions);
+    }
+
+    /**
+     * Runs JavaMark over the example sources again, on top of the output of the previous run.
+     */
+    private int rerunJavaMark(String outputDirectory, String... extraOptions) throws Exception
+    {
+        return runJavaMarkOn(EXAMPLE_SOURCES, EXAMPLE_PACKAGES, outputDirectory, extraOptions);
+    }
+
+    private int runJavaMarkOn(String sourcePath, String subpackages, String outputDirectory, String... extraOptions) throws Exception
+    {
+        List<String> arguments = new ArrayList<>(List.of(
+            "--module-path", classpath(),
+            "-doclet", "com.communi.suggestu.javamark.doclet.JavaMarkDoclet",
+            "--source-path", sourcePath,
+            "-d", outputDirectory
+        ));
+        arguments.addAll(Arrays.asList(extraOptions));
+        arguments.add("-subpackages");
+        arguments.add(subpackages);
+        return execute(arguments.toArray(String[]::new));
+    }
+
+    private int execute(String[] arguments) throws Exception
+    {
+        Method execute = Class.forName("jdk.javadoc.internal.tool.Main").getMethod("execute", String[].class);
+        execute.setAccessible(true);
+        return (int) execute.invoke(null, (Object) arguments);
+    }
+
     private void deleteRecursively(String outputDirectory) throws IOException
     {
         Path outputPath = Paths.get(outputDirectory);
@@ -88,6 +369,26 @@ public class JavaMarkIntegrationTest
         }
     }
 
+    private Map<String, String> readFiles(String directory) throws IOException
+    {
+        Path root = Paths.get(directory);
+        try (var files = Files.walk(root)) {
+            var result = new TreeMap<String, String>();
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                result.put(root.relativize(file).toString(), Files.readString(file));
+            }
+            return result;
+        }
+    }
+
+    private String manifestLine(Path manifest, String page) throws IOException
+    {
+        return Files.readAllLines(manifest).stream()
+            .filter(line -> line.endsWith(" " + page))
+            .findFirst()
+            .orElseThrow();
+    }
+
     private String classpath() {
         return Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
             .filter(s -> !s.contains("ideaIU")) // Filter out Intellij jar files.
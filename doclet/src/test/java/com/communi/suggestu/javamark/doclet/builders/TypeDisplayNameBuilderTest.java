@@ -0,0 +1,94 @@
+package com.communi.suggestu.javamark.doclet.builders;
+
+import com.communi.suggestu.javamark.doclet.utils.TypeLinkProvider;
+import com.communi.suggestu.javamark.doclet.utils.TypeUniverse;
+import com.sun.source.util.JavacTask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TypeDisplayNameBuilderTest
+{
+    private static final String SOURCE = """
+        package pkg;
+
+        import java.util.List;
+        import java.util.Map;
+
+        public class Signatures<T extends Number>
+        {
+            public List<Map<String, ? extends Number>> first;
+            public List<Map<String, ? extends Number>> second;
+            public List<Map<String, ? extends Number>>[] array;
+            public List<T> variable;
+        }
+        """;
+
+    private TypeUniverse typeUniverse;
+    private TypeElement  signatures;
+
+    @BeforeEach
+    void analyze() throws IOException
+    {
+        var source = new SimpleJavaFileObject(URI.create("string:///pkg/Signatures.java"), JavaFileObject.Kind.SOURCE)
+        {
+            @Override
+            public CharSequence getCharContent(final boolean ignoreEncodingErrors)
+            {
+                return SOURCE;
+            }
+        };
+        var task = (JavacTask) ToolProvider.getSystemJavaCompiler().getTask(null, null, null, List.of("-proc:none"), null, List.of(source));
+        task.analyze();
+
+        signatures = task.getElements().getTypeElement("pkg.Signatures");
+        typeUniverse = new TypeUniverse(null, task.getElements(), task.getTypes(), Set.of(signatures), Set.of());
+    }
+
+    @Test
+    void separateMirrorsOfTheSameSignatureShareTheirName()
+    {
+        var builder = new TypeDisplayNameBuilder(typeUniverse, new TypeLinkProvider(typeUniverse, Set.of()));
+        var first = fieldType("first");
+        var second = fieldType("second");
+        assertThat(first).isNotSameAs(second);
+
+        var firstName = builder.build(first);
+        var builtNames = builder.getBuiltNameCount();
+        var secondName = builder.build(second);
+
+        assertThat(secondName).isEqualTo(firstName).isEqualTo("List\\<Map\\<String,? extends Number\\>\\>");
+        assertThat(builder.getBuiltNameCount()).isEqualTo(builtNames);
+    }
+
+    @Test
+    void arraysAndTypeVariablesAreNamedByTheirStructure()
+    {
+        var builder = new TypeDisplayNameBuilder(typeUniverse, new TypeLinkProvider(typeUniverse, Set.of()));
+
+        assertThat(builder.build(fieldType("array"))).isEqualTo("List");
+        assertThat(builder.build(fieldType("variable"))).isEqualTo("List\\<T extends Number\\>");
+    }
+
+    private TypeMirror fieldType(final String name)
+    {
+        return ElementFilter.fieldsIn(signatures.getEnclosedElements()).stream()
+            .filter(field -> field.getSimpleName().contentEquals(name))
+            .map(VariableElement::asType)
+            .findFirst()
+            .orElseThrow();
+    }
+}
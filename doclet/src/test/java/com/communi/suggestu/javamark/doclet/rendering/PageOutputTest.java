@@ -0,0 +1,175 @@
+package com.communi.suggestu.javamark.doclet.rendering;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageOutputTest
+{
+    private static final FileTime PAST = FileTime.fromMillis(1_000_000_000_000L);
+
+    @TempDir
+    Path root;
+
+    @Test
+    void doesNotRewriteIdenticalPage() throws IOException
+    {
+        var page = writeExisting("pkg/Type.md", "same content");
+
+        var output = PageOutput.direct(root);
+        output.write(page, writer -> writer.write("same content"));
+        output.commit();
+
+        assertThat(page).hasContent("same content");
+        assertThat(Files.getLastModifiedTime(page)).isEqualTo(PAST);
+    }
+
+    @Test
+    void rewritesChangedPage() throws IOException
+    {
+        var page = writeExisting("pkg/Type.md", "old content");
+
+        var output = PageOutput.direct(root);
+        output.write(page, writer -> writer.write("old contents"));
+        output.commit();
+
+        assertThat(page).hasContent("old contents");
+        assertThat(Files.getLastModifiedTime(page)).isNotEqualTo(PAST);
+    }
+
+    @Test
+    void rewritesTruncatedPage() throws IOException
+    {
+        var page = writeExisting("pkg/Type.md", "content and more");
+
+        var output = PageOutput.direct(root);
+        output.write(page, writer -> writer.write("content"));
+        output.commit();
+
+        assertThat(page).hasContent("content");
+    }
+
+    @Test
+    void deletesOrphanedFilesAndDirectories() throws IOException
+    {
+        var page = writeExisting("pkg/Type.md", "content");
+        var orphan = writeExisting("old/Removed.md", "content");
+        var html = writeExisting("pkg/Type.html", "<html>");
+
+        var output = PageOutput.direct(root);
+        output.write(page, writer -> writer.write("content"));
+        output.commit();
+
+        assertThat(page).exists();
+        assertThat(orphan).doesNotExist();
+        assertThat(orphan.getParent()).doesNotExist();
+        assertThat(html).doesNotExist();
+    }
+
+    @Test
+    void keepsPageWithoutWritingIt() throws IOException
+    {
+        var page = writeExisting("pkg/Type.md", "content");
+
+        var output = PageOutput.direct(root);
+        output.keep(page);
+        output.commit();
+
+        assertThat(page).hasContent("content");
+        assertThat(Files.getLastModifiedTime(page)).isEqualTo(PAST);
+    }
+
+    @Test
+    void includesPageFromAnotherDirectory() throws IOException
+    {
+        var unchanged = writeExisting("docs/pkg/Unchanged.md", "unchanged");
+        var added = root.resolve("docs/pkg/Added.md");
+        var shardUnchanged = writeExisting("shard/pkg/Unchanged.md", "unchanged");
+        var shardAdded = writeExisting("shard/pkg/Added.md", "added");
+
+        var output = PageOutput.direct(root.resolve("docs"));
+        output.include(unchanged, shardUnchanged);
+        output.include(added, shardAdded);
+        output.commit();
+
+        assertThat(Files.getLastModifiedTime(unchanged)).isEqualTo(PAST);
+        assertThat(added).hasContent("added");
+    }
+
+    @Test
+    void stagedOutputReplacesOutputOnCommit() throws IOException
+    {
+        var outputRoot = root.resolve("docs");
+        var unchanged = writeExisting("docs/pkg/Unchanged.md", "unchanged");
+        var changed = writeExisting("docs/pkg/Changed.md", "old");
+        var orphan = writeExisting("docs/pkg/Orphan.md", "orphan");
+
+        try (var output = PageOutput.staged(outputRoot))
+        {
+            output.write(unchanged, writer -> writer.write("unchanged"));
+            output.write(changed, writer -> writer.write("new"));
+
+            assertThat(changed).hasContent("old");
+            output.commit();
+        }
+
+        assertThat(unchanged).hasContent("unchanged");
+        assertThat(Files.getLastModifiedTime(unchanged)).isEqualTo(PAST);
+        assertThat(changed).hasContent("new");
+        assertThat(orphan).doesNotExist();
+        assertThat(root.resolve("docs.javamark-staging")).doesNotExist();
+        assertThat(root.resolve("docs.javamark-previous")).doesNotExist();
+    }
+
+    @Test
+    void failedStagedOutputLeavesOutputUntouched() throws IOException
+    {
+        var outputRoot = root.resolve("docs");
+        var page = writeExisting("docs/pkg/Type.md", "old");
+
+        try (var output = PageOutput.staged(outputRoot))
+        {
+            output.write(page, writer -> writer.write("new"));
+        }
+
+        assertThat(page).hasContent("old");
+        assertThat(root.resolve("docs.javamark-staging")).doesNotExist();
+    }
+
+    @Test
+    void failedSwapRestoresPreviousOutput() throws IOException
+    {
+        var outputRoot = root.resolve("docs");
+        var page = writeExisting("docs/pkg/Type.md", "old");
+
+        try (var output = PageOutput.staged(outputRoot))
+        {
+            output.write(page, writer -> writer.write("new"));
+            // Without the staging directory the move which replaces the output fails, after the output was moved aside.
+            FileUtils.deleteDirectory(root.resolve("docs.javamark-staging").toFile());
+
+            assertThatThrownBy(output::commit).isInstanceOf(IOException.class);
+        }
+
+        assertThat(page).hasContent("old");
+        assertThat(Files.getLastModifiedTime(page)).isEqualTo(PAST);
+        assertThat(root.resolve("docs.javamark-previous")).doesNotExist();
+    }
+
+    private Path writeExisting(final String page, final String content) throws IOException
+    {
+        var path = root.resolve(page);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content);
+        Files.setLastModifiedTime(path, PAST);
+        return path;
+    }
+}
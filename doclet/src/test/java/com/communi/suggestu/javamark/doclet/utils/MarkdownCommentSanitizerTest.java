@@ -2,6 +2,9 @@ package com.communi.suggestu.javamark.doclet.utils;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class MarkdownCommentSanitizerTest
@@ -41,5 +44,36 @@ class MarkdownCommentSanitizerTest
         assertThat(MarkdownCommentSanitizer.stripBlankLinesInsideDivBlocks(input))
             .isEqualTo("```md\n<div>\n\ntext\n</div>\n```\n<section>\n::: tabs");
     }
-}
 
+    @Test
+    void writerProducesSameOutputWhenWrittenInPieces() throws IOException
+    {
+        final String input = "```md\n<div>\n\ntext\n</div>\n```\n \t\n<section>\n\n  ::: tabs\n";
+        final StringWriter output = new StringWriter();
+
+        try (var writer = new MarkdownCommentSanitizingWriter(output, "\n"))
+        {
+            for (int i = 0; i < input.length(); i += 2)
+            {
+                writer.write(input, i, Math.min(2, input.length() - i));
+            }
+        }
+
+        assertThat(output.toString()).isEqualTo(MarkdownCommentSanitizer.stripBlankLinesInsideDivBlocks(input));
+    }
+
+    @Test
+    void writerJoinsKeptLinesWithNewline() throws IOException
+    {
+        final StringWriter output = new StringWriter();
+
+        try (var writer = new MarkdownCommentSanitizingWriter(output, "\r\n"))
+        {
+            writer.write("<div>\nouter\n\n</div>\n\n");
+            assertThat(writer.hasOutput()).isTrue();
+            assertThat(writer.endsWithNewline()).isFalse();
+        }
+
+        assertThat(output.toString()).isEqualTo("<div>\r\nouter\r\n</div>");
+    }
+}
@@ -12,6 +12,16 @@ public record SizeInformation(
     boolean hasChanged,
     int size)
 {
+    /**
+     * The size of a palette which holds no entries.
+     */
+    public static final int EMPTY_SIZE = 0;
+
+    /**
+     * The largest size a palette can have.
+     */
+    public static final int MAX_SIZE = 1 << 16;
+
     public static SizeInformation notChanged()
     {
         return new SizeInformation(false, 0);
@@ -0,0 +1,41 @@
+package com.communi.suggestu.javamark.gradle;
+
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.SourceSetContainer;
+
+/**
+ * Documents the main source sets of all java projects of a build in a single doclet run.
+ * <p>
+ * Apply this plugin to the root project. Its {@code javamarkAggregate} task collects the sources and classpaths of
+ * every project which applies the java plugin, so all documented types are part of the same run and link to each
+ * other across projects. The shared classpath is only read once, instead of once per project.
+ */
+@SuppressWarnings("unused")
+public class JavaMarkAggregatePlugin implements Plugin<Project>
+{
+    @Override
+    public void apply(Project target)
+    {
+        var configuration = JavaMarkPlugin.registerDocletConfiguration(target);
+        var classpath = target.getObjects().fileCollection();
+
+        var aggregate = target.getTasks().register("javamarkAggregate", JavaMarkPlugin.JavaMarkTask.class, task -> {
+            JavaMarkPlugin.configureTask(target, task, configuration);
+            task.setDescription("Generates documentation in markdown format for all java projects using the JavaMark doclet.");
+            task.setDestinationDir(target.getLayout().getBuildDirectory().dir("docs/markdown-aggregate").get().getAsFile());
+            task.setClasspath(classpath);
+            // The sources of all projects are documented as one set of packages, not as separate modules.
+            task.getModularity().getInferModulePath().convention(false);
+        });
+
+        target.allprojects(project -> project.getPluginManager().withPlugin("java", plugin -> {
+            var sourceSet = project.getExtensions().getByType(SourceSetContainer.class)
+                .getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+
+            classpath.from(sourceSet.getOutput(), sourceSet.getCompileClasspath());
+            aggregate.configure(task -> task.source(sourceSet.getAllJava()));
+        }));
+    }
+}
@@ -1,16 +1,33 @@
 package com.communi.suggestu.javamark.gradle;
 
+import org.gradle.api.NamedDomainObjectProvider;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.FileSystemOperations;
 import org.gradle.api.internal.tasks.JvmConstants;
 import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.SourceSet;
 import org.gradle.api.tasks.SourceSetContainer;
+import org.gradle.api.tasks.TaskAction;
 import org.gradle.api.tasks.TaskContainer;
 import org.gradle.api.tasks.javadoc.Javadoc;
 import org.gradle.external.javadoc.StandardJavadocDocletOptions;
+import org.gradle.workers.WorkerExecutor;
 import org.jspecify.annotations.Nullable;
 
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -39,33 +56,243 @@ public class JavaMarkPlugin implements Plugin<Project>
     @Override
     public void apply(Project target)
     {
-        var version = target.getProviders().gradleProperty("javamark.version").orElse(target.getProviders().gradleProperty("javaMarkVersion").orElse("latest.release"));
-        var configuration = target.getConfigurations().register(CONFIGURATION_NAME);
-        target.getDependencies().addProvider(CONFIGURATION_NAME, version.map(v -> "com.communi-suggestu.javamark:doclet:" + v));
+        var configuration = registerDocletConfiguration(target);
 
         var javaPluginExtension = target.getExtensions().getByType(JavaPluginExtension.class);
         var sourceSet = target.getExtensions().getByType(SourceSetContainer.class)
                 .getByName(SourceSet.MAIN_SOURCE_SET_NAME);
 
         target.getTasks().register("javamark", JavaMarkTask.class, task -> {
-            task.setGroup("documentation");
+            configureTask(target, task, configuration);
             task.setDescription("Generates documentation in markdown format using the JavaMark doclet.");
-            task.getOptions().doclet(DOCLET_CLASS);
-            task.getOptions().setDocletpath(List.copyOf(configuration.get().getFiles()));
             task.setDestinationDir(target.getLayout().getBuildDirectory().dir("docs/markdown").get().getAsFile());
-            task.options(opts -> {
-                EXPORTS.forEach(
-                    export -> opts.jFlags("--add-exports=%s".formatted(export))
-                );
-                OPENS.forEach(
-                    opens -> opts.jFlags("--add-opens=%s".formatted(opens))
-                );
-                task.setClasspath(sourceSet.getOutput().plus(sourceSet.getCompileClasspath()));
-                task.setSource(sourceSet.getAllJava());
-                task.getModularity().getInferModulePath().convention(javaPluginExtension.getModularity().getInferModulePath());
-            });
+            task.setClasspath(sourceSet.getOutput().plus(sourceSet.getCompileClasspath()));
+            task.setSource(sourceSet.getAllJava());
+            task.getModularity().getInferModulePath().convention(javaPluginExtension.getModularity().getInferModulePath());
+        });
+    }
+
+    /**
+     * Registers the configuration which resolves the doclet, in the version of the {@code javamark.version} property.
+     * Both plugins can be applied to the same project, in which case they share the configuration.
+     *
+     * @param target the project to register the configuration in
+     * @return the configuration
+     */
+    static NamedDomainObjectProvider<Configuration> registerDocletConfiguration(final Project target)
+    {
+        if (target.getConfigurations().getNames().contains(CONFIGURATION_NAME))
+        {
+            return target.getConfigurations().named(CONFIGURATION_NAME);
+        }
+
+        var version = target.getProviders().gradleProperty("javamark.version").orElse(target.getProviders().gradleProperty("javaMarkVersion").orElse("latest.release"));
+        var configuration = target.getConfigurations().register(CONFIGURATION_NAME);
+        target.getDependencies().addProvider(CONFIGURATION_NAME, version.map(v -> "com.communi-suggestu.javamark:doclet:" + v));
+        return configuration;
+    }
+
+    /**
+     * Configures the doclet, its JVM flags and the defaults of the JavaMark options of a task.
+     * The sources, classpath and output directory are left to the caller.
+     *
+     * @param target        the project of the task
+     * @param task          the task to configure
+     * @param configuration the configuration which resolves the doclet
+     */
+    static void configureTask(final Project target, final JavaMarkTask task, final NamedDomainObjectProvider<Configuration> configuration)
+    {
+        task.setGroup("documentation");
+        task.getDocletClasspath().from(configuration);
+        task.getMarkdownOnly().convention(true);
+        task.getConstantsPerPackage().convention(false);
+        task.getUseWorker().convention(target.getProviders().gradleProperty("javamark.worker").map(Boolean::parseBoolean).orElse(true));
+        task.options(opts -> {
+            EXPORTS.forEach(
+                export -> opts.jFlags("--add-exports=%s".formatted(export))
+            );
+            OPENS.forEach(
+                opens -> opts.jFlags("--add-opens=%s".formatted(opens))
+            );
         });
     }
 
-    public static abstract class JavaMarkTask extends Javadoc {}
+    /**
+     * Runs javadoc with the JavaMark doclet.
+     * <p>
+     * The doclet path and the JavaMark options are lazy inputs, which are only resolved and passed to javadoc when the
+     * task runs. Together with the sources, classpath and javadoc options declared by {@link Javadoc} they make up
+     * the cache key of the task, so the generated pages can be restored from the build cache.
+     * <p>
+     * By default javadoc runs in a Gradle worker process, which is kept alive and reused by later runs of the task.
+     * Setting the {@code javamark.worker} Gradle property to {@code false} runs a new javadoc process instead. The worker
+     * only supports the javadoc tool of the toolchain on a plain classpath, so a task with a custom executable, verbose
+     * output or module sources whose module path is inferred also runs a new javadoc process.
+     */
+    @CacheableTask
+    public static abstract class JavaMarkTask extends Javadoc
+    {
+        /**
+         * {@return the classpath of the JavaMark doclet and its dependencies}
+         */
+        @Classpath
+        public abstract ConfigurableFileCollection getDocletClasspath();
+
+        /**
+         * {@return whether the HTML pages of the standard doclet are skipped, which is the default}
+         * The skipped pages are removed from the output either way, so this only affects how long the task takes.
+         */
+        @Input
+        public abstract Property<Boolean> getMarkdownOnly();
+
+        /**
+         * {@return whether the constant values are written to a page per package}
+         */
+        @Input
+        public abstract Property<Boolean> getConstantsPerPackage();
+
+        /**
+         * {@return how the search index is split into shards, {@code package} or {@code prefix}}
+         * No search index is written if it is not set.
+         */
+        @Input
+        @Optional
+        public abstract Property<String> getSearchIndex();
+
+        /**
+         * {@return the amount of threads used to write the rendered pages}
+         * The pages do not depend on it, so it is not an input of the task.
+         */
+        @Internal
+        public abstract Property<Integer> getRenderThreads();
+
+        /**
+         * {@return whether javadoc runs in a reusable Gradle worker process, instead of a new javadoc process per run}
+         * The worker gets the heap configured by {@link #getMaxMemory()}.
+         */
+        @Internal
+        public abstract Property<Boolean> getUseWorker();
+
+        @Inject
+        protected abstract WorkerExecutor getWorkerExecutor();
+
+        @Inject
+        protected abstract FileSystemOperations getFileSystemOperations();
+
+        @Override
+        @TaskAction
+        protected void generate()
+        {
+            var options = (StandardJavadocDocletOptions) getOptions();
+            options.doclet(DOCLET_CLASS);
+            options.setDocletpath(List.copyOf(getDocletClasspath().getFiles()));
+            options.addBooleanOption("-markdown-only", getMarkdownOnly().get());
+            options.addBooleanOption("-constants-per-package", getConstantsPerPackage().get());
+            if (getRenderThreads().isPresent())
+            {
+                options.addStringOption("-render-threads", getRenderThreads().get().toString());
+            }
+            if (getSearchIndex().isPresent())
+            {
+                options.addStringOption("-search-index", getSearchIndex().get());
+            }
+
+            if (!getUseWorker().get() || !supportsWorker())
+            {
+                super.generate();
+                return;
+            }
+
+            generateInWorker(options);
+        }
+
+        /**
+         * {@return whether the task can run in the worker, which runs the javadoc tool of the toolchain on a plain classpath}
+         */
+        private boolean supportsWorker()
+        {
+            if (getExecutable() != null)
+            {
+                return runsInProcess("a custom javadoc executable is configured");
+            }
+            if (isVerbose())
+            {
+                return runsInProcess("verbose output is requested");
+            }
+            if (getModularity().getInferModulePath().get() && getSource().getFiles().stream().anyMatch(file -> file.getName().equals("module-info.java")))
+            {
+                return runsInProcess("the module path of the module sources is inferred");
+            }
+            return true;
+        }
+
+        private boolean runsInProcess(final String reason)
+        {
+            getLogger().info("Running javadoc in a new process instead of a worker, as {}.", reason);
+            return false;
+        }
+
+        /**
+         * Writes the javadoc options file from the options and inputs of the task, and submits it to a worker process.
+         * The classpath is passed as it is, and the flags for the javadoc JVM become the arguments of the worker JVM.
+         */
+        private void generateInWorker(final StandardJavadocDocletOptions taskOptions)
+        {
+            var destinationDir = getDestinationDir();
+            getFileSystemOperations().delete(spec -> spec.delete(destinationDir));
+            if (!destinationDir.mkdirs())
+            {
+                throw new UncheckedIOException(new IOException("Could not create the output directory " + destinationDir));
+            }
+
+            var options = new StandardJavadocDocletOptions(taskOptions);
+            if (options.getDestinationDirectory() == null)
+            {
+                options.destinationDirectory(destinationDir);
+            }
+            options.classpath(new ArrayList<>(getClasspath().getFiles()));
+            if (options.getWindowTitle() == null && getTitle() != null)
+            {
+                options.windowTitle(getTitle());
+            }
+            if (options.getDocTitle() == null && getTitle() != null)
+            {
+                options.setDocTitle(getTitle());
+            }
+            options.setSourceNames(getSource().getFiles().stream().map(File::getAbsolutePath).toList());
+
+            var optionsFile = getOptionsFile();
+            try
+            {
+                options.write(optionsFile);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException("Could not write the javadoc options file " + optionsFile, e);
+            }
+
+            var queue = getWorkerExecutor().processIsolation(spec -> {
+                spec.getForkOptions().setExecutable(javaExecutable());
+                spec.getForkOptions().jvmArgs(options.getJFlags());
+                if (getMaxMemory() != null)
+                {
+                    spec.getForkOptions().setMaxHeapSize(getMaxMemory());
+                }
+            });
+            queue.submit(JavaMarkWorkAction.class, parameters -> {
+                parameters.getOptionsFile().set(optionsFile);
+                parameters.getFailOnError().set(isFailOnError());
+            });
+        }
+
+        /**
+         * {@return the java launcher of the installation which provides the configured javadoc tool}
+         */
+        private File javaExecutable()
+        {
+            var bin = getJavadocTool().get().getMetadata().getInstallationPath().dir("bin").getAsFile();
+            var windowsExecutable = new File(bin, "java.exe");
+            return windowsExecutable.isFile() ? windowsExecutable : new File(bin, "java");
+        }
+    }
 }
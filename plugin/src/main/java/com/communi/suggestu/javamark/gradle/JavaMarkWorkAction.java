@@ -0,0 +1,49 @@
+package com.communi.suggestu.javamark.gradle;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+import javax.tools.DocumentationTool;
+import javax.tools.ToolProvider;
+
+/**
+ * Runs javadoc with the JavaMark doclet inside a Gradle worker process.
+ * <p>
+ * The worker process is started with the exports and opens the doclet needs, and Gradle reuses it for later runs
+ * with compatible fork options. The classes of the javadoc tool then stay loaded and compiled between runs.
+ */
+public abstract class JavaMarkWorkAction implements WorkAction<JavaMarkWorkAction.Parameters>
+{
+    public interface Parameters extends WorkParameters
+    {
+        /**
+         * {@return the javadoc options file, which contains the doclet, the doclet path and the sources}
+         */
+        RegularFileProperty getOptionsFile();
+
+        /**
+         * {@return whether the task fails when javadoc reports errors}
+         */
+        Property<Boolean> getFailOnError();
+    }
+
+    @Override
+    public void execute()
+    {
+        DocumentationTool tool = ToolProvider.getSystemDocumentationTool();
+        if (tool == null)
+        {
+            throw new GradleException("The JavaMark worker does not run on a JDK with the javadoc tool.");
+        }
+
+        var optionsFile = getParameters().getOptionsFile().get().getAsFile();
+        var result = tool.run(null, null, null, "@" + optionsFile.getAbsolutePath());
+        if (result != 0 && getParameters().getFailOnError().get())
+        {
+            throw new GradleException("Javadoc generation failed with exit code %d, see the output above. Options file: %s".formatted(result, optionsFile));
+        }
+    }
+}